@@ -0,0 +1,323 @@
+/* ******************************************************************************************************
+ *
+ *  Name:               MinJoker
+ *  Date:               19/10/2026
+ *  Libraries:          algs4.jar
+ *  Project source:     https://coursera.cs.princeton.edu/algs4/assignments/kdtree/specification.php
+ *
+ ***************************************************************************************************** */
+
+import edu.princeton.cs.algs4.Point2D;
+import edu.princeton.cs.algs4.RectHV;
+import edu.princeton.cs.algs4.Queue;
+import edu.princeton.cs.algs4.StdOut;
+import edu.princeton.cs.algs4.StdRandom;
+import edu.princeton.cs.algs4.Stopwatch;
+import java.util.Arrays;
+import java.util.function.Consumer;
+
+/**
+ * The {@code ArrayPointSET} class represents a set of points in the unit square,
+ * using parallel arrays sorted by x-coordinate ( then by y-coordinate ).
+ *
+ * some key points as follows:
+ *
+ * 1. the coordinates are kept in {@code double[]} arrays next to the points themselves,
+ *    so the scans read contiguous memory, and the points are only touched to return them.
+ * 2. {@code contains()} is a binary search. {@code insert()} is a binary search followed by
+ *    a shift of the larger points, so it takes linear time, which is cheap for small sets.
+ * 3. {@code range()} finds the points with xmin <= x <= xmax by binary search, then
+ *    scans them for ymin <= y <= ymax, in blocks of at most 256 points, so the only
+ *    allocation besides the result is a small buffer of indices owned by the query.
+ * 4. {@code nearest()} is a linear scan over the coordinate arrays.
+ *    the scans themselves are done by {@code PointScanner}.
+ * so it is a drop-in replacement of {@code PointSET} as a fallback for small sets,
+ * while {@code PointSET} stays the simple reference implementation.
+ *
+ * more details can be found in the project source:
+ * https://coursera.cs.princeton.edu/algs4/assignments/kdtree/specification.php
+ */
+
+public class ArrayPointSET {
+    // initial capacity of the underlying arrays
+    private static final int INIT_CAPACITY = 16;
+    // number of points scanned at a time by range()
+    private static final int BLOCK = 256;
+
+    private double[] xs;        // x-coordinates of the points, in order
+    private double[] ys;        // y-coordinates of the points, in order
+    private Point2D[] points;   // the points, in order
+    private int size;           // number of points
+
+    /**
+     * construct an empty set of points
+     */
+    public ArrayPointSET() {
+        xs = new double[INIT_CAPACITY];
+        ys = new double[INIT_CAPACITY];
+        points = new Point2D[INIT_CAPACITY];
+        size = 0;
+    }
+
+    /**
+     * is the set empty?
+     *
+     * @return true if the set is empty, false otherwise
+     */
+    public boolean isEmpty() {
+        return size == 0;
+    }
+
+    /**
+     * number of points in the set
+     *
+     * @return the number of points in the set
+     */
+    public int size() {
+        return size;
+    }
+
+    // index of the first point that is not less than (x, y), or size if there is none
+    private int rank(double x, double y) {
+        int lo = 0, hi = size;
+        while (lo < hi) {
+            int mid = (lo + hi) >>> 1;
+            if (xs[mid] < x || (xs[mid] == x && ys[mid] < y)) lo = mid + 1;
+            else                                              hi = mid;
+        }
+        return lo;
+    }
+
+    /**
+     * add the point to the set (if it is not already in the set)
+     *
+     * @param p the point to add
+     * @throws IllegalArgumentException if the argument is null
+     */
+    public void insert(Point2D p) {
+        if (p == null) throw new IllegalArgumentException("argument to insert() is null");
+        double x = p.x();
+        double y = p.y();
+        int i = rank(x, y);
+        if (i < size && xs[i] == x && ys[i] == y) return;
+        if (size == xs.length) {
+            xs = Arrays.copyOf(xs, 2 * size);
+            ys = Arrays.copyOf(ys, 2 * size);
+            points = Arrays.copyOf(points, 2 * size);
+        }
+        System.arraycopy(xs, i, xs, i + 1, size - i);
+        System.arraycopy(ys, i, ys, i + 1, size - i);
+        System.arraycopy(points, i, points, i + 1, size - i);
+        xs[i] = x;
+        ys[i] = y;
+        points[i] = p;
+        size++;
+    }
+
+    /**
+     * does the set contain point p?
+     *
+     * @param p the point to check
+     * @return true if the set contains p, false otherwise
+     * @throws IllegalArgumentException if the argument is null
+     */
+    public boolean contains(Point2D p) {
+        if (p == null) throw new IllegalArgumentException("argument to contains() is null");
+        int i = rank(p.x(), p.y());
+        return i < size && xs[i] == p.x() && ys[i] == p.y();
+    }
+
+    /**
+     * draw all points to standard draw
+     */
+    public void draw() {
+        for (int i = 0; i < size; i++) {
+            points[i].draw();
+        }
+    }
+
+    /**
+     * all points that are inside the rectangle (or on the boundary)
+     *
+     * @param rect the rectangle to check
+     * @return all points that are inside the rectangle (or on the boundary)
+     * @throws IllegalArgumentException if the argument is null
+     */
+    public Iterable<Point2D> range(RectHV rect) {
+        if (rect == null) throw new IllegalArgumentException("argument to range() is null");
+        Queue<Point2D> queue = new Queue<Point2D>();
+        range(rect, queue::enqueue);
+        return queue;
+    }
+
+    /**
+     * pass every point that is inside the rectangle (or on the boundary) to the action
+     *
+     * @param rect the rectangle
+     * @param action the action to perform on each point
+     * @throws IllegalArgumentException if any argument is null
+     */
+    public void range(RectHV rect, Consumer<? super Point2D> action) {
+        if (rect == null) throw new IllegalArgumentException("argument to range() is null");
+        if (action == null) throw new IllegalArgumentException("action of range() is null");
+        // the first point with x >= xmin, and the first one with x > xmax
+        int lo = rank(rect.xmin(), Double.NEGATIVE_INFINITY);
+        int hi = rank(rect.xmax(), Double.POSITIVE_INFINITY);
+        if (lo >= hi) return;
+        // the buffer belongs to this call, so concurrent readers and an action
+        // that queries the set again do not overwrite each other's hits
+        int[] hits = new int[Math.min(hi - lo, BLOCK)];
+        for (int from = lo; from < hi; from += BLOCK) {
+            int to = Math.min(from + BLOCK, hi);
+            int n = PointScanner.range(xs, ys, from, to, rect.xmin(), rect.ymin(), rect.xmax(), rect.ymax(), hits);
+            for (int i = 0; i < n; i++) action.accept(points[hits[i]]);
+        }
+    }
+
+    /**
+     * a nearest neighbor in the set to point p; null if the set is empty
+     *
+     * @param p the point to check
+     * @return a nearest neighbor in the set to point p; null if the set is empty
+     * @throws IllegalArgumentException if the argument is null
+     */
+    public Point2D nearest(Point2D p) {
+        if (p == null) throw new IllegalArgumentException("argument to nearest() is null");
+        if (isEmpty()) return null;
+        return points[PointScanner.nearest(xs, ys, 0, size, p.x(), p.y())];
+    }
+
+    /**
+     * the k nearest neighbors in the set to point p
+     *
+     * @param p the point to check
+     * @param k the number of neighbors
+     * @param out the buffer that receives the neighbors, nearest first
+     * @return the number of neighbors found, that is, {@code min(k, size())}
+     * @throws IllegalArgumentException if {@code p} or {@code out} is null,
+     *         or unless {@code 0 <= k <= out.length}
+     */
+    public int nearest(Point2D p, int k, Point2D[] out) {
+        if (p == null) throw new IllegalArgumentException("argument to nearest() is null");
+        if (out == null) throw new IllegalArgumentException("buffer of nearest() is null");
+        if (k < 0 || k > out.length) throw new IllegalArgumentException("k must be between 0 and " + out.length);
+        // the buffers belong to this call, so concurrent readers do not share them
+        int[] neighbors = new int[k];
+        double[] distances = new double[k];
+        int n = PointScanner.nearest(xs, ys, 0, size, p.x(), p.y(), k, neighbors, distances);
+        for (int i = 0; i < n; i++) out[i] = points[neighbors[i]];
+        return n;
+    }
+
+    /**
+     * unit testing of the methods
+     *
+     * inserts n random points ( default: 2000 ) into both an {@code ArrayPointSET}
+     * and a {@code PointSET}, checks that both agree on {@code contains()}, {@code range()}
+     * and {@code nearest()} for random queries, and times the queries of both.
+     * the k nearest neighbors are checked against a {@code KdTree}, and a range query
+     * is run inside the action of another one, and two threads query the set at once.
+     *
+     * @param args the command-line arguments
+     * @throws InterruptedException if interrupted while waiting for the threads
+     */
+    public static void main(String[] args) throws InterruptedException {
+        int n = args.length > 0 ? Integer.parseInt(args[0]) : 2000;
+        ArrayPointSET array = new ArrayPointSET();
+        PointSET brute = new PointSET();
+        KdTree kdtree = new KdTree();
+        Point2D[] points = new Point2D[n];
+        for (int i = 0; i < n; i++) {
+            // x on a coarse grid, so that there are ties in x
+            points[i] = new Point2D(StdRandom.uniformInt(1000) / 1000.0, StdRandom.uniformDouble());
+            array.insert(points[i]);
+            brute.insert(points[i]);
+            kdtree.insert(points[i]);
+        }
+        array.insert(points[0]);
+        StdOut.println("size: " + array.size() + " ( PointSET: " + brute.size() + " )");
+
+        int queries = 10000;
+        Point2D[] targets = new Point2D[queries];
+        RectHV[] rects = new RectHV[queries];
+        for (int i = 0; i < queries; i++) {
+            targets[i] = new Point2D(StdRandom.uniformDouble(), StdRandom.uniformDouble());
+            double x = StdRandom.uniformDouble(0.0, 0.9);
+            double y = StdRandom.uniformDouble(0.0, 0.9);
+            rects[i] = new RectHV(x, y, x + 0.1, y + 0.1);
+        }
+
+        int mismatches = 0;
+        Point2D[] neighbors = new Point2D[8];
+        Point2D[] expected = new Point2D[8];
+        for (int i = 0; i < queries; i++) {
+            int found = array.nearest(targets[i], 8, neighbors);
+            if (found != kdtree.nearest(targets[i], 8, expected)) mismatches++;
+            for (int j = 0; j < found; j++) {
+                if (targets[i].distanceSquaredTo(neighbors[j]) != targets[i].distanceSquaredTo(expected[j]))
+                    mismatches++;
+            }
+            if (array.contains(points[i % n]) != brute.contains(points[i % n])) mismatches++;
+            if (array.contains(targets[i]) != brute.contains(targets[i])) mismatches++;
+            if (targets[i].distanceSquaredTo(array.nearest(targets[i]))
+                != targets[i].distanceSquaredTo(brute.nearest(targets[i]))) mismatches++;
+            int count = 0;
+            for (Point2D p : array.range(rects[i])) count++;
+            for (Point2D p : brute.range(rects[i])) count--;
+            if (count != 0) mismatches++;
+        }
+        // a range query inside the action of another one, which scans the whole square,
+        // so the outer query spans several blocks while the inner ones run
+        RectHV square = new RectHV(0.0, 0.0, 1.0, 1.0);
+        int[] nested = new int[1];
+        array.range(square, p -> {
+            nested[0]++;
+            array.range(rects[0], q -> nested[0]++);
+        });
+        int outer = 0;
+        int inner = 0;
+        for (Point2D p : brute.range(square)) outer++;
+        for (Point2D p : brute.range(rects[0])) inner++;
+        if (nested[0] != outer * (1 + inner)) mismatches++;
+
+        // two readers running k nearest neighbors and range queries at the same time
+        int[] failures = new int[2];
+        Thread[] readers = new Thread[failures.length];
+        for (int t = 0; t < readers.length; t++) {
+            final int id = t;
+            readers[t] = new Thread(() -> {
+                Point2D[] found = new Point2D[8];
+                Point2D[] wanted = new Point2D[8];
+                for (int i = id; i < queries; i += readers.length) {
+                    int m = array.nearest(targets[i], 8, found);
+                    if (m != kdtree.nearest(targets[i], 8, wanted)) failures[id]++;
+                    for (int j = 0; j < m; j++) {
+                        if (targets[i].distanceSquaredTo(found[j]) != targets[i].distanceSquaredTo(wanted[j]))
+                            failures[id]++;
+                    }
+                    int[] count = new int[1];
+                    array.range(rects[i], p -> count[0]++);
+                    kdtree.range(rects[i], p -> count[0]--);
+                    if (count[0] != 0) failures[id]++;
+                }
+            });
+        }
+        for (Thread reader : readers) reader.start();
+        for (Thread reader : readers) reader.join();
+        for (int failure : failures) mismatches += failure;
+        StdOut.println("mismatches: " + mismatches);
+
+        for (int round = 0; round < 2; round++) {   // the first round warms up the JIT
+            Stopwatch stopwatch = new Stopwatch();
+            for (int i = 0; i < queries; i++) array.nearest(targets[i]);
+            for (RectHV rect : rects) array.range(rect);
+            double arrayTime = stopwatch.elapsedTime();
+            stopwatch = new Stopwatch();
+            for (int i = 0; i < queries; i++) brute.nearest(targets[i]);
+            for (RectHV rect : rects) brute.range(rect);
+            double bruteTime = stopwatch.elapsedTime();
+            if (round == 1)
+                StdOut.printf("nearest + range: %.3f s ( PointSET: %.3f s )\n", arrayTime, bruteTime);
+        }
+    }
+}
@@ -0,0 +1,461 @@
+/* ******************************************************************************************************
+ *
+ *  Name:               MinJoker
+ *  Date:               19/10/2026
+ *  Libraries:          algs4.jar
+ *  Project source:     https://coursera.cs.princeton.edu/algs4/assignments/kdtree/specification.php
+ *
+ ***************************************************************************************************** */
+
+import edu.princeton.cs.algs4.Point2D;
+import edu.princeton.cs.algs4.RectHV;
+import edu.princeton.cs.algs4.Queue;
+import edu.princeton.cs.algs4.StdOut;
+import edu.princeton.cs.algs4.StdRandom;
+import edu.princeton.cs.algs4.Stopwatch;
+import java.util.Arrays;
+import java.util.function.Consumer;
+
+/**
+ * The {@code BucketKdTree} class represents a set of points in the unit square, using a 2d-tree
+ * whose leaves are buckets of up to {@code bucketSize} points.
+ *
+ * some key points as follows:
+ *
+ * 1. an internal node holds only a split: an axis and a value. the points whose coordinate
+ *    on that axis is less than the value are in the left/bottom subtree, the others are in
+ *    the right/top subtree. internal nodes are stored in parallel arrays, and a child
+ *    is either an internal node {@code i >= 0} or a leaf {@code ~l < 0}.
+ * 2. leaf l owns the slots {@code [l * bucketSize, (l + 1) * bucketSize)} of the coordinate
+ *    arrays, so its points are contiguous, and a leaf is searched by a linear scan
+ *    ( with {@code PointScanner} ) instead of one more level of nodes per point.
+ *    with buckets of 32 points, a tree of 10^7 points is about 5 levels shallower than a
+ *    {@code KdTree}, and most of the work happens in scans over consecutive memory.
+ * 3. when a point is added to a full leaf, the leaf is split at the median of its points
+ *    along the axis where they are the most spread out. the median is moved if needed,
+ *    so that neither half is empty even when many points share a coordinate.
+ * 4. every query allocates its own traversal stack, which stays small as the tree is shallow,
+ *    so several threads can query a {@code BucketKdTree} at once, but it must not be modified
+ *    during a query.
+ *
+ * more details can be found in the project source:
+ * https://coursera.cs.princeton.edu/algs4/assignments/kdtree/specification.php
+ */
+
+public class BucketKdTree {
+    // default number of points in a leaf
+    private static final int DEFAULT_BUCKET_SIZE = 32;
+    // initial number of internal nodes and leaves
+    private static final int INIT_CAPACITY = 16;
+
+    private final int bucketSize;   // maximum number of points in a leaf
+    private int size;               // number of points
+    private int root;               // the root, an internal node or a leaf
+
+    // internal nodes
+    private double[] split;         // split value of each node
+    private boolean[] vertical;     // is the node split by x?
+    private int[] left;             // left/bottom child, a node or a leaf
+    private int[] right;            // right/top child, a node or a leaf
+    private int nodes;              // number of internal nodes
+
+    // leaves
+    private double[] xs;            // x-coordinates, bucketSize slots per leaf
+    private double[] ys;            // y-coordinates, bucketSize slots per leaf
+    private Point2D[] points;       // the points, bucketSize slots per leaf
+    private int[] counts;           // number of points in each leaf
+    private int leaves;             // number of leaves
+
+    // an explicit stack of nodes and leaves and their rectangles, one per query
+    private static class Stack {
+        private int[] nodes = new int[64];              // the nodes and leaves
+        private double[] bounds = new double[4 * 64];   // xmin, ymin, xmax, ymax of each entry
+        private int n;                                  // number of entries on the stack
+
+        // push a child with its rectangle
+        void push(int child, double xmin, double ymin, double xmax, double ymax) {
+            if (n == nodes.length) {
+                nodes = Arrays.copyOf(nodes, 2 * n);
+                bounds = Arrays.copyOf(bounds, 8 * n);
+            }
+            nodes[n] = child;
+            bounds[4 * n] = xmin;
+            bounds[4 * n + 1] = ymin;
+            bounds[4 * n + 2] = xmax;
+            bounds[4 * n + 3] = ymax;
+            n++;
+        }
+    }
+
+    /**
+     * construct an empty set of points, with buckets of 32 points
+     */
+    public BucketKdTree() {
+        this(DEFAULT_BUCKET_SIZE);
+    }
+
+    /**
+     * construct an empty set of points, with buckets of the given size
+     *
+     * @param bucketSize the maximum number of points in a leaf
+     * @throws IllegalArgumentException if {@code bucketSize < 1}
+     */
+    public BucketKdTree(int bucketSize) {
+        if (bucketSize < 1) throw new IllegalArgumentException("bucket size must be positive");
+        this.bucketSize = bucketSize;
+        split = new double[INIT_CAPACITY];
+        vertical = new boolean[INIT_CAPACITY];
+        left = new int[INIT_CAPACITY];
+        right = new int[INIT_CAPACITY];
+        xs = new double[INIT_CAPACITY * bucketSize];
+        ys = new double[INIT_CAPACITY * bucketSize];
+        points = new Point2D[INIT_CAPACITY * bucketSize];
+        counts = new int[INIT_CAPACITY];
+        root = ~newLeaf();
+    }
+
+    /**
+     * is the set empty?
+     *
+     * @return true if the set is empty, false otherwise
+     */
+    public boolean isEmpty() {
+        return size == 0;
+    }
+
+    /**
+     * number of points in the set
+     *
+     * @return the number of points in the set
+     */
+    public int size() {
+        return size;
+    }
+
+    /**
+     * maximum number of points in a leaf
+     *
+     * @return the bucket size
+     */
+    public int bucketSize() {
+        return bucketSize;
+    }
+
+    // append an empty leaf and return its index
+    private int newLeaf() {
+        if (leaves == counts.length) {
+            int capacity = 2 * leaves;
+            counts = Arrays.copyOf(counts, capacity);
+            xs = Arrays.copyOf(xs, capacity * bucketSize);
+            ys = Arrays.copyOf(ys, capacity * bucketSize);
+            points = Arrays.copyOf(points, capacity * bucketSize);
+        }
+        counts[leaves] = 0;
+        return leaves++;
+    }
+
+    // append an internal node and return its index
+    private int newNode(double value, boolean isVertical, int leftChild, int rightChild) {
+        if (nodes == split.length) {
+            int capacity = 2 * nodes;
+            split = Arrays.copyOf(split, capacity);
+            vertical = Arrays.copyOf(vertical, capacity);
+            left = Arrays.copyOf(left, capacity);
+            right = Arrays.copyOf(right, capacity);
+        }
+        split[nodes] = value;
+        vertical[nodes] = isVertical;
+        left[nodes] = leftChild;
+        right[nodes] = rightChild;
+        return nodes++;
+    }
+
+    // add a point to a leaf that is not full
+    private void append(int leaf, Point2D p) {
+        int i = leaf * bucketSize + counts[leaf]++;
+        xs[i] = p.x();
+        ys[i] = p.y();
+        points[i] = p;
+    }
+
+    /**
+     * add the point to the set (if it is not already in the set)
+     *
+     * @param p the point to add
+     * @throws IllegalArgumentException if the argument is null
+     */
+    public void insert(Point2D p) {
+        if (p == null) throw new IllegalArgumentException("argument to insert() is null");
+        double x = p.x();
+        double y = p.y();
+        int parent = -1;
+        boolean isLeft = false;
+        int r = root;
+        while (r >= 0) {
+            parent = r;
+            isLeft = (vertical[r] ? x : y) < split[r];
+            r = isLeft ? left[r] : right[r];
+        }
+        int leaf = ~r;
+        int lo = leaf * bucketSize;
+        for (int i = lo; i < lo + counts[leaf]; i++) {
+            if (xs[i] == x && ys[i] == y) return;
+        }
+        size++;
+        if (counts[leaf] < bucketSize) {
+            append(leaf, p);
+            return;
+        }
+
+        // split the full leaf, the new point included
+        int node = splitLeaf(leaf, p);
+        if (parent == -1)  root = node;
+        else if (isLeft)   left[parent] = node;
+        else               right[parent] = node;
+    }
+
+    // split a full leaf and the point p into two leaves, and return the new internal node
+    private int splitLeaf(int leaf, Point2D p) {
+        int lo = leaf * bucketSize;
+        Point2D[] a = new Point2D[bucketSize + 1];
+        System.arraycopy(points, lo, a, 0, bucketSize);
+        a[bucketSize] = p;
+
+        // the axis along which the points are the most spread out, if they differ on it
+        double xmin = Double.POSITIVE_INFINITY, xmax = Double.NEGATIVE_INFINITY;
+        double ymin = Double.POSITIVE_INFINITY, ymax = Double.NEGATIVE_INFINITY;
+        for (Point2D q : a) {
+            xmin = Math.min(xmin, q.x());
+            xmax = Math.max(xmax, q.x());
+            ymin = Math.min(ymin, q.y());
+            ymax = Math.max(ymax, q.y());
+        }
+        boolean isVertical = xmax - xmin >= ymax - ymin;
+        Arrays.sort(a, isVertical ? Point2D.X_ORDER : Point2D.Y_ORDER);
+
+        // the points before the median go left, the median and the points after it go right
+        // the points equal to the median go right too, and if that leaves the left empty,
+        // the median moves up past them ( the points are distinct, so they differ on this axis )
+        int mid = a.length / 2;
+        double value = key(a[mid], isVertical);
+        while (mid > 0 && key(a[mid - 1], isVertical) == value) mid--;
+        if (mid == 0) {
+            while (key(a[mid], isVertical) == value) mid++;
+            value = key(a[mid], isVertical);
+        }
+
+        int other = newLeaf();
+        counts[leaf] = 0;
+        Arrays.fill(points, lo, lo + bucketSize, null);     // to avoid loitering
+        for (int i = 0; i < a.length; i++) append(i < mid ? leaf : other, a[i]);
+        return newNode(value, isVertical, ~leaf, ~other);
+    }
+
+    // the coordinate of p along the axis
+    private static double key(Point2D p, boolean isVertical) {
+        return isVertical ? p.x() : p.y();
+    }
+
+    /**
+     * does the set contain point p?
+     *
+     * @param p the point to check
+     * @return true if the set contains p, false otherwise
+     * @throws IllegalArgumentException if the argument is null
+     */
+    public boolean contains(Point2D p) {
+        if (p == null) throw new IllegalArgumentException("argument to contains() is null");
+        double x = p.x();
+        double y = p.y();
+        int r = root;
+        while (r >= 0) r = (vertical[r] ? x : y) < split[r] ? left[r] : right[r];
+        int lo = ~r * bucketSize;
+        for (int i = lo; i < lo + counts[~r]; i++) {
+            if (xs[i] == x && ys[i] == y) return true;
+        }
+        return false;
+    }
+
+    /**
+     * draw all points to standard draw
+     */
+    public void draw() {
+        for (int leaf = 0; leaf < leaves; leaf++) {
+            int lo = leaf * bucketSize;
+            for (int i = lo; i < lo + counts[leaf]; i++) points[i].draw();
+        }
+    }
+
+    /**
+     * all points that are inside the rectangle (or on the boundary)
+     *
+     * @param rect the rectangle
+     * @return all points that are inside the rectangle (or on the boundary)
+     * @throws IllegalArgumentException if the argument is null
+     */
+    public Iterable<Point2D> range(RectHV rect) {
+        if (rect == null) throw new IllegalArgumentException("argument to range() is null");
+        Queue<Point2D> queue = new Queue<Point2D>();
+        range(rect, queue::enqueue);
+        return queue;
+    }
+
+    /**
+     * pass every point that is inside the rectangle (or on the boundary) to the action
+     *
+     * the action may query this tree, but it must not modify it.
+     *
+     * @param rect the rectangle
+     * @param action the action to perform on each point
+     * @throws IllegalArgumentException if any argument is null
+     */
+    public void range(RectHV rect, Consumer<? super Point2D> action) {
+        if (rect == null) throw new IllegalArgumentException("argument to range() is null");
+        if (action == null) throw new IllegalArgumentException("action of range() is null");
+        double qxmin = rect.xmin(), qymin = rect.ymin(), qxmax = rect.xmax(), qymax = rect.ymax();
+        int[] hits = new int[bucketSize];   // indices found in a leaf
+        Stack stack = new Stack();
+        // the rectangles are not needed here
+        stack.push(root, 0, 0, 1, 1);
+        while (stack.n > 0) {
+            int r = stack.nodes[--stack.n];
+            if (r < 0) {
+                int lo = ~r * bucketSize;
+                int found = PointScanner.range(xs, ys, lo, lo + counts[~r], qxmin, qymin, qxmax, qymax, hits);
+                for (int i = 0; i < found; i++) action.accept(points[hits[i]]);
+                continue;
+            }
+            // the left/bottom subtree holds the points before the split, the right/top one the others
+            double qmin = vertical[r] ? qxmin : qymin;
+            double qmax = vertical[r] ? qxmax : qymax;
+            if (qmax >= split[r]) stack.push(right[r], 0, 0, 1, 1);
+            if (qmin < split[r])  stack.push(left[r], 0, 0, 1, 1);
+        }
+    }
+
+    /**
+     * a nearest neighbor in the set to point p; null if the set is empty
+     *
+     * @param p the point to check
+     * @return a nearest neighbor in the set to point p; null if the set is empty
+     * @throws IllegalArgumentException if the argument is null
+     */
+    public Point2D nearest(Point2D p) {
+        if (p == null) throw new IllegalArgumentException("argument to nearest() is null");
+        if (isEmpty()) return null;
+        double px = p.x();
+        double py = p.y();
+        int best = -1;
+        double bestDistance = Double.POSITIVE_INFINITY;
+        Stack stack = new Stack();
+        stack.push(root, 0, 0, 1, 1);
+        while (stack.n > 0) {
+            int r = stack.nodes[--stack.n];
+            int b = 4 * stack.n;
+            double xmin = stack.bounds[b], ymin = stack.bounds[b + 1];
+            double xmax = stack.bounds[b + 2], ymax = stack.bounds[b + 3];
+            // there is no need to search a node (or its subtrees) if
+            // the nearest distance so far is closer than the distance between
+            // the query point and the rectangle corresponding to the node
+            double dx = px < xmin ? xmin - px : (px > xmax ? px - xmax : 0.0);
+            double dy = py < ymin ? ymin - py : (py > ymax ? py - ymax : 0.0);
+            if (dx * dx + dy * dy >= bestDistance) continue;
+
+            if (r < 0) {
+                int lo = ~r * bucketSize;
+                int i = PointScanner.nearest(xs, ys, lo, lo + counts[~r], px, py);
+                if (i == -1) continue;
+                double distance = (xs[i] - px) * (xs[i] - px) + (ys[i] - py) * (ys[i] - py);
+                if (distance < bestDistance) {
+                    best = i;
+                    bestDistance = distance;
+                }
+                continue;
+            }
+
+            // search the subtree on the same side as the query point first, so push it last
+            double s = split[r];
+            if (vertical[r]) {
+                if (px < s) {
+                    stack.push(right[r], s, ymin, xmax, ymax);
+                    stack.push(left[r], xmin, ymin, s, ymax);
+                } else {
+                    stack.push(left[r], xmin, ymin, s, ymax);
+                    stack.push(right[r], s, ymin, xmax, ymax);
+                }
+            } else {
+                if (py < s) {
+                    stack.push(right[r], xmin, s, xmax, ymax);
+                    stack.push(left[r], xmin, ymin, xmax, s);
+                } else {
+                    stack.push(left[r], xmin, ymin, xmax, s);
+                    stack.push(right[r], xmin, s, xmax, ymax);
+                }
+            }
+        }
+        return points[best];
+    }
+
+    /**
+     * unit testing of the methods
+     *
+     * inserts n random points ( default: 1000000 ) into a {@code KdTree} and into
+     * {@code BucketKdTree}s with several bucket sizes, checks that they agree on
+     * {@code contains()}, {@code range()} and {@code nearest()} for random queries,
+     * then times {@code nearest()} for each of them.
+     * points on a coarse grid are added too, so that leaves are split among equal coordinates.
+     *
+     * @param args the command-line arguments
+     */
+    public static void main(String[] args) {
+        int n = args.length > 0 ? Integer.parseInt(args[0]) : 1000000;
+        Point2D[] points = new Point2D[n];
+        for (int i = 0; i < n; i++) {
+            if (i % 4 == 0) points[i] = new Point2D(StdRandom.uniformInt(8) / 8.0, StdRandom.uniformInt(100) / 100.0);
+            else            points[i] = new Point2D(StdRandom.uniformDouble(), StdRandom.uniformDouble());
+        }
+        KdTree kdtree = new KdTree();
+        for (Point2D p : points) kdtree.insert(p);
+
+        int queries = 100000;
+        Point2D[] targets = new Point2D[queries];
+        for (int i = 0; i < queries; i++) targets[i] = new Point2D(StdRandom.uniformDouble(), StdRandom.uniformDouble());
+
+        double kdtreeTime = 0.0;
+        for (int round = 0; round < 2; round++) {   // the first round warms up the JIT
+            Stopwatch stopwatch = new Stopwatch();
+            for (Point2D target : targets) kdtree.nearest(target);
+            kdtreeTime = stopwatch.elapsedTime();
+        }
+        StdOut.printf("KdTree            nearest: %6.3f s\n", kdtreeTime);
+
+        for (int bucketSize : new int[] { 1, 8, 32, 64 }) {
+            BucketKdTree tree = new BucketKdTree(bucketSize);
+            for (Point2D p : points) tree.insert(p);
+
+            int mismatches = tree.size() == kdtree.size() ? 0 : 1;
+            for (int i = 0; i < 1000; i++) {
+                if (tree.contains(points[i % n]) != kdtree.contains(points[i % n])) mismatches++;
+                if (tree.contains(targets[i]) != kdtree.contains(targets[i])) mismatches++;
+                if (targets[i].distanceSquaredTo(tree.nearest(targets[i]))
+                    != targets[i].distanceSquaredTo(kdtree.nearest(targets[i]))) mismatches++;
+                double x = StdRandom.uniformDouble(0.0, 0.875);
+                double y = StdRandom.uniformDouble(0.0, 0.99);
+                RectHV rect = new RectHV(x, y, x + 0.125, y + 0.01);   // on grid lines as well
+                int count = 0;
+                for (Point2D p : tree.range(rect)) count++;
+                for (Point2D p : kdtree.range(rect)) count--;
+                if (count != 0) mismatches++;
+            }
+
+            double time = 0.0;
+            for (int round = 0; round < 2; round++) {
+                Stopwatch stopwatch = new Stopwatch();
+                for (Point2D target : targets) tree.nearest(target);
+                time = stopwatch.elapsedTime();
+            }
+            StdOut.printf("BucketKdTree(%2d)  nearest: %6.3f s  ( %.1fx )  mismatches: %d\n",
+                          bucketSize, time, kdtreeTime / time, mismatches);
+        }
+    }
+}
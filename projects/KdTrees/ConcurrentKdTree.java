@@ -0,0 +1,370 @@
+/* ******************************************************************************************************
+ *
+ *  Name:               MinJoker
+ *  Date:               19/10/2026
+ *  Libraries:          algs4.jar
+ *  Project source:     https://coursera.cs.princeton.edu/algs4/assignments/kdtree/specification.php
+ *
+ ***************************************************************************************************** */
+
+import edu.princeton.cs.algs4.Point2D;
+import edu.princeton.cs.algs4.RectHV;
+import edu.princeton.cs.algs4.Queue;
+import edu.princeton.cs.algs4.StdOut;
+import edu.princeton.cs.algs4.StdRandom;
+import java.util.Arrays;
+import java.util.function.Consumer;
+
+/**
+ * The {@code ConcurrentKdTree} class represents a set of points in the unit square, using a 2d-tree
+ * that many threads can query while another thread inserts points.
+ *
+ * some key points as follows:
+ *
+ * 1. nodes are immutable. an insertion never modifies a node: it copies the nodes on the path
+ *    from the root to the new leaf ( path copying ), and shares every other subtree.
+ * 2. the new root is then published with a single volatile write. a query reads the root once,
+ *    and from then on sees a consistent snapshot of the tree, whatever the writer does meanwhile.
+ *    so queries take no lock and never wait for the writer.
+ * 3. writers are serialized by a lock on the tree. an insertion allocates O(depth) nodes,
+ *    and the nodes of old snapshots are reclaimed by the GC once no query uses them.
+ * 4. {@code snapshot()} returns an independent tree sharing the current nodes in O(1),
+ *    to run several queries against the same state.
+ * 5. all traversals are iterative, each query on a stack of its own, so a degenerate tree
+ *    ( points inserted in sorted order ) cannot overflow the call stack. such a tree still
+ *    makes every insertion copy a path of O(n) nodes.
+ *
+ * more details can be found in the project source:
+ * https://coursera.cs.princeton.edu/algs4/assignments/kdtree/specification.php
+ */
+
+public class ConcurrentKdTree {
+    private volatile Node root;     // root of the current version of the tree
+    private Node[] path;            // the search path of insert(), guarded by the lock
+
+    private static class Node {
+        private final Point2D point;    // the point
+        private final double x, y;      // the coordinates of point
+        private final Node left;        // the left/bottom subtree
+        private final Node right;       // the right/top subtree
+        private final int size;         // number of points in the subtree
+
+        Node(Point2D point, Node left, Node right) {
+            this.point = point;
+            this.x = point.x();
+            this.y = point.y();
+            this.left = left;
+            this.right = right;
+            this.size = 1 + size(left) + size(right);
+        }
+    }
+
+    // number of points in the subtree rooted at r
+    private static int size(Node r) {
+        return r == null ? 0 : r.size;
+    }
+
+    /**
+     * construct an empty set of points
+     */
+    public ConcurrentKdTree() {
+        root = null;
+        path = new Node[64];
+    }
+
+    /**
+     * construct a set of points sharing the given root
+     */
+    private ConcurrentKdTree(Node root) {
+        this.root = root;
+        this.path = new Node[64];
+    }
+
+    /**
+     * is the set empty?
+     *
+     * @return true if the set is empty, false otherwise
+     */
+    public boolean isEmpty() {
+        return root == null;
+    }
+
+    /**
+     * number of points in the set
+     *
+     * @return the number of points in the set
+     */
+    public int size() {
+        return size(root);
+    }
+
+    /**
+     * an independent copy of the current set of points, in constant time
+     *
+     * @return a copy of the set, unaffected by later insertions into this one
+     */
+    public ConcurrentKdTree snapshot() {
+        return new ConcurrentKdTree(root);
+    }
+
+    /**
+     * add the point to the set (if it is not already in the set)
+     *
+     * @param p the point to add
+     * @throws IllegalArgumentException if the argument is null
+     */
+    public synchronized void insert(Point2D p) {
+        if (p == null) throw new IllegalArgumentException("argument to insert() is null");
+        double x = p.x();
+        double y = p.y();
+
+        // walk down to the empty link where p belongs, remembering the path
+        int depth = 0;
+        Node r = root;
+        boolean isVertical = true;
+        while (r != null) {
+            if (r.x == x && r.y == y) {
+                Arrays.fill(path, 0, depth, null);    // to avoid loitering
+                return;
+            }
+            if (depth == path.length) path = Arrays.copyOf(path, 2 * depth);
+            path[depth++] = r;
+            r = (isVertical ? x < r.x : y < r.y) ? r.left : r.right;
+            isVertical = !isVertical;
+        }
+
+        // copy the path bottom-up, each copy pointing to the copy of its child
+        // ( the nodes on the path are immutable, so the child was on the side of p )
+        Node updated = new Node(p, null, null);
+        for (int i = depth - 1; i >= 0; i--) {
+            Node parent = path[i];
+            path[i] = null;     // to avoid loitering
+            boolean goLeft = i % 2 == 0 ? x < parent.x : y < parent.y;
+            updated = goLeft ? new Node(parent.point, updated, parent.right)
+                             : new Node(parent.point, parent.left, updated);
+        }
+        root = updated;     // publish the new version
+    }
+
+    /**
+     * does the set contain point p?
+     *
+     * @param p the point to check
+     * @return true if the set contains p, false otherwise
+     * @throws IllegalArgumentException if the argument is null
+     */
+    public boolean contains(Point2D p) {
+        if (p == null) throw new IllegalArgumentException("argument to contains() is null");
+        double x = p.x();
+        double y = p.y();
+        Node r = root;
+        boolean isVertical = true;
+        while (r != null) {
+            if (r.x == x && r.y == y) return true;
+            if (isVertical) r = x < r.x ? r.left : r.right;
+            else            r = y < r.y ? r.left : r.right;
+            isVertical = !isVertical;
+        }
+        return false;
+    }
+
+    /**
+     * all points that are inside the rectangle (or on the boundary)
+     *
+     * @param rect the rectangle
+     * @return all points that are inside the rectangle (or on the boundary)
+     * @throws IllegalArgumentException if the argument is null
+     */
+    public Iterable<Point2D> range(RectHV rect) {
+        if (rect == null) throw new IllegalArgumentException("argument to range() is null");
+        Queue<Point2D> queue = new Queue<Point2D>();
+        range(rect, queue::enqueue);
+        return queue;
+    }
+
+    /**
+     * pass every point that is inside the rectangle (or on the boundary) to the action
+     *
+     * @param rect the rectangle
+     * @param action the action to perform on each point
+     * @throws IllegalArgumentException if any argument is null
+     */
+    public void range(RectHV rect, Consumer<? super Point2D> action) {
+        if (rect == null) throw new IllegalArgumentException("argument to range() is null");
+        if (action == null) throw new IllegalArgumentException("action of range() is null");
+        double qxmin = rect.xmin(), qymin = rect.ymin(), qxmax = rect.xmax(), qymax = rect.ymax();
+        Stack stack = new Stack();
+        // the rectangles are not needed here, only the splits
+        stack.push(root, true, 0, 0, 1, 1);
+        while (stack.n > 0) {
+            Node r = stack.pop();
+            boolean isVertical = stack.vertical[stack.n];
+            if (r.x >= qxmin && r.x <= qxmax && r.y >= qymin && r.y <= qymax) action.accept(r.point);
+            // the left/bottom rectangle ends at the split, the right/top one starts at it
+            double split = isVertical ? r.x : r.y;
+            if ((isVertical ? qxmax : qymax) >= split) stack.push(r.right, !isVertical, 0, 0, 1, 1);
+            if ((isVertical ? qxmin : qymin) <= split) stack.push(r.left, !isVertical, 0, 0, 1, 1);
+        }
+    }
+
+    // an explicit stack of nodes and their rectangles, one per query
+    private static class Stack {
+        private Node[] nodes = new Node[64];            // the nodes
+        private boolean[] vertical = new boolean[64];   // is the node split vertically?
+        private double[] bounds = new double[4 * 64];   // xmin, ymin, xmax, ymax of each node
+        private int n;                                  // number of nodes on the stack
+
+        // push a node with its rectangle, ignoring null
+        void push(Node node, boolean isVertical, double xmin, double ymin, double xmax, double ymax) {
+            if (node == null) return;
+            if (n == nodes.length) {
+                nodes = Arrays.copyOf(nodes, 2 * n);
+                vertical = Arrays.copyOf(vertical, 2 * n);
+                bounds = Arrays.copyOf(bounds, 8 * n);
+            }
+            nodes[n] = node;
+            vertical[n] = isVertical;
+            bounds[4 * n] = xmin;
+            bounds[4 * n + 1] = ymin;
+            bounds[4 * n + 2] = xmax;
+            bounds[4 * n + 3] = ymax;
+            n++;
+        }
+
+        // pop the top node, its axis and rectangle stay readable at index n
+        Node pop() {
+            Node node = nodes[--n];
+            nodes[n] = null;    // to avoid loitering
+            return node;
+        }
+    }
+
+    /**
+     * a nearest neighbor in the set to point p; null if the set is empty
+     *
+     * @param p the point to check
+     * @return a nearest neighbor in the set to point p; null if the set is empty
+     * @throws IllegalArgumentException if the argument is null
+     */
+    public Point2D nearest(Point2D p) {
+        if (p == null) throw new IllegalArgumentException("argument to nearest() is null");
+        double px = p.x();
+        double py = p.y();
+        Point2D best = null;
+        double bestDistance = Double.POSITIVE_INFINITY;
+        Stack stack = new Stack();
+        stack.push(root, true, 0, 0, 1, 1);
+        while (stack.n > 0) {
+            Node r = stack.pop();
+            boolean isVertical = stack.vertical[stack.n];
+            int i = 4 * stack.n;
+            double xmin = stack.bounds[i], ymin = stack.bounds[i + 1];
+            double xmax = stack.bounds[i + 2], ymax = stack.bounds[i + 3];
+            // there is no need to search a node (or its subtrees) if
+            // the nearest distance so far is closer than the distance between
+            // the query point and the rectangle corresponding to the node
+            double dx = px < xmin ? xmin - px : (px > xmax ? px - xmax : 0.0);
+            double dy = py < ymin ? ymin - py : (py > ymax ? py - ymax : 0.0);
+            if (dx * dx + dy * dy >= bestDistance) continue;
+
+            double distance = (r.x - px) * (r.x - px) + (r.y - py) * (r.y - py);
+            if (distance < bestDistance) {
+                best = r.point;
+                bestDistance = distance;
+            }
+
+            // search the subtree on the same side as the query point first, so push it last
+            if (isVertical) {
+                if (px < r.x) {
+                    stack.push(r.right, false, r.x, ymin, xmax, ymax);
+                    stack.push(r.left, false, xmin, ymin, r.x, ymax);
+                } else {
+                    stack.push(r.left, false, xmin, ymin, r.x, ymax);
+                    stack.push(r.right, false, r.x, ymin, xmax, ymax);
+                }
+            } else {
+                if (py < r.y) {
+                    stack.push(r.right, true, xmin, r.y, xmax, ymax);
+                    stack.push(r.left, true, xmin, ymin, xmax, r.y);
+                } else {
+                    stack.push(r.left, true, xmin, ymin, xmax, r.y);
+                    stack.push(r.right, true, xmin, r.y, xmax, ymax);
+                }
+            }
+        }
+        return best;
+    }
+
+    /**
+     * unit testing of the methods
+     *
+     * one writer inserts n random points ( default: 200000 ) while 3 readers
+     * keep running nearest neighbor queries, then the result is checked against a {@code KdTree}.
+     * a snapshot taken halfway must still have the size it had then.
+     * last, n / 20 points are inserted in sorted order, which makes the tree a path,
+     * and the queries are checked again.
+     *
+     * @param args the command-line arguments
+     * @throws InterruptedException if interrupted while waiting for the threads
+     */
+    public static void main(String[] args) throws InterruptedException {
+        int n = args.length > 0 ? Integer.parseInt(args[0]) : 200000;
+        Point2D[] points = new Point2D[n];
+        for (int i = 0; i < n; i++) points[i] = new Point2D(StdRandom.uniformDouble(), StdRandom.uniformDouble());
+
+        ConcurrentKdTree tree = new ConcurrentKdTree();
+        ConcurrentKdTree[] half = new ConcurrentKdTree[1];
+        Thread writer = new Thread(() -> {
+            for (int i = 0; i < n; i++) {
+                tree.insert(points[i]);
+                if (i == n / 2) half[0] = tree.snapshot();
+            }
+        });
+        long[] queries = new long[3];
+        Thread[] readers = new Thread[queries.length];
+        for (int t = 0; t < readers.length; t++) {
+            final int id = t;
+            readers[t] = new Thread(() -> {
+                while (writer.isAlive()) {
+                    tree.nearest(new Point2D(StdRandom.uniformDouble(), StdRandom.uniformDouble()));
+                    queries[id]++;
+                }
+            });
+        }
+        writer.start();
+        for (Thread reader : readers) reader.start();
+        writer.join();
+        for (Thread reader : readers) reader.join();
+
+        KdTree kdtree = KdTree.build(points);
+        int mismatches = 0;
+        for (int i = 0; i < 1000; i++) {
+            Point2D query = new Point2D(StdRandom.uniformDouble(), StdRandom.uniformDouble());
+            if (query.distanceSquaredTo(tree.nearest(query)) != query.distanceSquaredTo(kdtree.nearest(query)))
+                mismatches++;
+        }
+        StdOut.println("size: " + tree.size() + " ( KdTree: " + kdtree.size() + " )");
+        StdOut.println("snapshot size: " + half[0].size() + " ( expected " + (n / 2 + 1) + " )");
+        StdOut.println("queries during insertion: " + (queries[0] + queries[1] + queries[2]));
+        StdOut.println("mismatches: " + mismatches);
+
+        Point2D[] sorted = Arrays.copyOf(points, n / 20);
+        Arrays.sort(sorted);
+        ConcurrentKdTree path = new ConcurrentKdTree();
+        for (Point2D p : sorted) path.insert(p);
+        kdtree = KdTree.build(sorted);
+        mismatches = 0;
+        for (int i = 0; i < 1000; i++) {
+            Point2D query = new Point2D(StdRandom.uniformDouble(), StdRandom.uniformDouble());
+            if (query.distanceSquaredTo(path.nearest(query)) != query.distanceSquaredTo(kdtree.nearest(query)))
+                mismatches++;
+            double x = StdRandom.uniformDouble(0.0, 0.9);
+            double y = StdRandom.uniformDouble(0.0, 0.9);
+            RectHV rect = new RectHV(x, y, x + 0.1, y + 0.1);
+            int[] count = new int[1];
+            path.range(rect, q -> count[0]++);
+            if (count[0] != kdtree.countRange(rect) || !path.contains(sorted[i % sorted.length])) mismatches++;
+        }
+        StdOut.println("sorted insertion, size: " + path.size() + ", mismatches: " + mismatches);
+    }
+}
@@ -0,0 +1,364 @@
+/* ******************************************************************************************************
+ *
+ *  Name:               MinJoker
+ *  Date:               19/10/2026
+ *  Libraries:          algs4.jar
+ *  Project source:     https://coursera.cs.princeton.edu/algs4/assignments/kdtree/specification.php
+ *
+ ***************************************************************************************************** */
+
+import edu.princeton.cs.algs4.Point2D;
+import edu.princeton.cs.algs4.RectHV;
+import edu.princeton.cs.algs4.Queue;
+import edu.princeton.cs.algs4.StdOut;
+import edu.princeton.cs.algs4.StdDraw;
+import edu.princeton.cs.algs4.StdRandom;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.IdentityHashMap;
+import java.util.Set;
+
+/**
+ * The {@code FlatKdTree} class represents a set of points in the unit square, using a 2d-tree
+ * laid out in parallel primitive arrays instead of {@code Node} objects.
+ *
+ * some key points as follows:
+ *
+ * 1. node i has coordinates {@code xs[i]} and {@code ys[i]}, and children
+ *    {@code left[i]} and {@code right[i]} ( -1 if absent ). the root is node 0.
+ *    nodes are appended in insertion order, so there are no per-node headers and
+ *    no {@code RectHV}: 24 bytes per point, plus a reference to the inserted {@code Point2D},
+ *    which the queries return as is, against more than 100 bytes for a {@code KdTree.Node}
+ *    with its point and rectangle.
+ * 2. the rectangle of a node is never stored. the traversals keep the bounds of each node
+ *    with it on an explicit stack, and split them at each level. they are iterative,
+ *    so a degenerate tree ( points inserted in sorted order ) cannot overflow the call stack.
+ *    the height of the tree is kept, and every query allocates a stack large enough for it,
+ *    an {@code int[]} of nodes and a {@code double[]} of bounds ( O(height) memory, as much as
+ *    a recursion would take ), so several threads can query the tree at once.
+ * 3. as in {@code KdTree}, the split is vertical ( by x ) at even depths
+ *    and horizontal ( by y ) at odd depths, and ties go to the right/top subtree.
+ *
+ * more details can be found in the project source:
+ * https://coursera.cs.princeton.edu/algs4/assignments/kdtree/specification.php
+ */
+
+public class FlatKdTree {
+    // initial capacity of the underlying arrays
+    private static final int INIT_CAPACITY = 16;
+
+    private double[] xs;        // x-coordinates of the points
+    private double[] ys;        // y-coordinates of the points
+    private int[] left;         // index of the left/bottom child, -1 if none
+    private int[] right;        // index of the right/top child, -1 if none
+    private Point2D[] points;   // the inserted points, returned by the queries
+    private int size;           // number of points
+    private int height;         // number of levels of the tree, 0 if it is empty
+
+    /**
+     * construct an empty set of points
+     */
+    public FlatKdTree() {
+        xs = new double[INIT_CAPACITY];
+        ys = new double[INIT_CAPACITY];
+        left = new int[INIT_CAPACITY];
+        right = new int[INIT_CAPACITY];
+        points = new Point2D[INIT_CAPACITY];
+        size = 0;
+        height = 0;
+    }
+
+    /**
+     * is the set empty?
+     *
+     * @return true if the set is empty, false otherwise
+     */
+    public boolean isEmpty() {
+        return size == 0;
+    }
+
+    /**
+     * number of points in the set
+     *
+     * @return the number of points in the set
+     */
+    public int size() {
+        return size;
+    }
+
+    // resize the underlying arrays
+    private void resize(int capacity) {
+        xs = Arrays.copyOf(xs, capacity);
+        ys = Arrays.copyOf(ys, capacity);
+        left = Arrays.copyOf(left, capacity);
+        right = Arrays.copyOf(right, capacity);
+        points = Arrays.copyOf(points, capacity);
+    }
+
+    // append a new leaf node at the given depth and return its index
+    private int newNode(Point2D p, int depth) {
+        if (size == xs.length) resize(2 * xs.length);
+        xs[size] = p.x();
+        ys[size] = p.y();
+        left[size] = -1;
+        right[size] = -1;
+        points[size] = p;
+        height = Math.max(height, depth + 1);
+        return size++;
+    }
+
+    // a new stack for a traversal: a node is popped before its two children are pushed,
+    // so it holds at most one pending sibling per level, plus the two children on top
+    private int[] newStack() {
+        return new int[height + 1];
+    }
+
+    // push node on the stack with its split direction, packed as 2 * node + ( 1 if vertical ),
+    // and its rectangle at bounds[4 * n ..] if bounds is not null; ignore -1.
+    // return the new number of nodes on the stack
+    private static int push(int[] stack, double[] bounds, int n, int node, boolean isVertical,
+                            double xmin, double ymin, double xmax, double ymax) {
+        if (node == -1) return n;
+        stack[n] = 2 * node + (isVertical ? 1 : 0);
+        if (bounds != null) {
+            bounds[4 * n] = xmin;
+            bounds[4 * n + 1] = ymin;
+            bounds[4 * n + 2] = xmax;
+            bounds[4 * n + 3] = ymax;
+        }
+        return n + 1;
+    }
+
+    /**
+     * add the point to the set (if it is not already in the set)
+     *
+     * @param p the point to add
+     * @throws IllegalArgumentException if the argument is null
+     */
+    public void insert(Point2D p) {
+        if (p == null) throw new IllegalArgumentException("argument to insert() is null");
+        double x = p.x();
+        double y = p.y();
+        if (size == 0) {
+            newNode(p, 0);
+            return;
+        }
+        int r = 0;
+        int depth = 0;
+        boolean isVertical = true;
+        while (true) {
+            if (xs[r] == x && ys[r] == y) return;
+            boolean goLeft = isVertical ? x < xs[r] : y < ys[r];
+            int child = goLeft ? left[r] : right[r];
+            if (child == -1) {
+                int node = newNode(p, depth + 1);
+                if (goLeft) left[r] = node;
+                else        right[r] = node;
+                return;
+            }
+            r = child;
+            depth++;
+            isVertical = !isVertical;
+        }
+    }
+
+    /**
+     * does the set contain point p?
+     *
+     * @param p the point to check
+     * @return true if the set contains p, false otherwise
+     * @throws IllegalArgumentException if the argument is null
+     */
+    public boolean contains(Point2D p) {
+        if (p == null) throw new IllegalArgumentException("argument to contains() is null");
+        double x = p.x();
+        double y = p.y();
+        int r = size == 0 ? -1 : 0;
+        boolean isVertical = true;
+        while (r != -1) {
+            if (xs[r] == x && ys[r] == y) return true;
+            if (isVertical) r = x < xs[r] ? left[r] : right[r];
+            else            r = y < ys[r] ? left[r] : right[r];
+            isVertical = !isVertical;
+        }
+        return false;
+    }
+
+    /**
+     * draw all points to standard draw
+     */
+    public void draw() {
+        int[] stack = newStack();
+        double[] bounds = new double[4 * stack.length];
+        int n = size > 0 ? push(stack, bounds, 0, 0, true, 0, 0, 1, 1) : 0;
+        while (n > 0) {
+            int r = stack[--n] >>> 1;
+            boolean isVertical = (stack[n] & 1) == 1;
+            int i = 4 * n;
+            double xmin = bounds[i], ymin = bounds[i + 1];
+            double xmax = bounds[i + 2], ymax = bounds[i + 3];
+            StdDraw.setPenColor(StdDraw.BLACK);
+            StdDraw.setPenRadius(0.01);
+            StdDraw.point(xs[r], ys[r]);
+
+            // draw the splitting line, for debugging
+            // the left/bottom subtree is pushed last, so that it is drawn first
+            StdDraw.setPenRadius();
+            if (isVertical) {
+                StdDraw.setPenColor(StdDraw.RED);
+                StdDraw.line(xs[r], ymin, xs[r], ymax);
+                n = push(stack, bounds, n, right[r], false, xs[r], ymin, xmax, ymax);
+                n = push(stack, bounds, n, left[r], false, xmin, ymin, xs[r], ymax);
+            } else {
+                StdDraw.setPenColor(StdDraw.BLUE);
+                StdDraw.line(xmin, ys[r], xmax, ys[r]);
+                n = push(stack, bounds, n, right[r], true, xmin, ys[r], xmax, ymax);
+                n = push(stack, bounds, n, left[r], true, xmin, ymin, xmax, ys[r]);
+            }
+        }
+    }
+
+    /**
+     * all points that are inside the rectangle (or on the boundary)
+     *
+     * @param rect the rectangle
+     * @return all points that are inside the rectangle (or on the boundary)
+     * @throws IllegalArgumentException if the argument is null
+     */
+    public Iterable<Point2D> range(RectHV rect) {
+        if (rect == null) throw new IllegalArgumentException("argument to range() is null");
+        double qxmin = rect.xmin(), qymin = rect.ymin(), qxmax = rect.xmax(), qymax = rect.ymax();
+        Queue<Point2D> queue = new Queue<Point2D>();
+        int[] stack = newStack();
+        // the rectangles are not needed here: a node is only pushed
+        // when its rectangle intersects the query, so only the split needs checking
+        int n = size > 0 ? push(stack, null, 0, 0, true, 0, 0, 1, 1) : 0;
+        while (n > 0) {
+            int r = stack[--n] >>> 1;
+            boolean isVertical = (stack[n] & 1) == 1;
+            double x = xs[r];
+            double y = ys[r];
+            if (x >= qxmin && x <= qxmax && y >= qymin && y <= qymax) queue.enqueue(points[r]);
+            double split = isVertical ? x : y;
+            double qmin = isVertical ? qxmin : qymin;
+            double qmax = isVertical ? qxmax : qymax;
+            // the left/bottom rectangle ends at split, the right/top one starts at split
+            if (qmax >= split) n = push(stack, null, n, right[r], !isVertical, 0, 0, 1, 1);
+            if (qmin <= split) n = push(stack, null, n, left[r], !isVertical, 0, 0, 1, 1);
+        }
+        return queue;
+    }
+
+    /**
+     * a nearest neighbor in the set to point p; null if the set is empty
+     *
+     * @param p the point to check
+     * @return a nearest neighbor in the set to point p; null if the set is empty
+     * @throws IllegalArgumentException if the argument is null
+     */
+    public Point2D nearest(Point2D p) {
+        if (p == null) throw new IllegalArgumentException("argument to nearest() is null");
+        if (isEmpty()) return null;
+        double px = p.x();
+        double py = p.y();
+        int best = 0;                                   // index of the nearest point so far
+        double bestDistance = Double.POSITIVE_INFINITY; // squared distance to the nearest point so far
+        int[] stack = newStack();
+        double[] bounds = new double[4 * stack.length];
+        int n = push(stack, bounds, 0, 0, true, 0, 0, 1, 1);
+        while (n > 0) {
+            int r = stack[--n] >>> 1;
+            boolean isVertical = (stack[n] & 1) == 1;
+            int i = 4 * n;
+            double xmin = bounds[i], ymin = bounds[i + 1];
+            double xmax = bounds[i + 2], ymax = bounds[i + 3];
+            // there is no need to search a node (or its subtrees) if
+            // the nearest distance so far is closer than the distance between
+            // the query point and the rectangle corresponding to the node
+            double dx = px < xmin ? xmin - px : (px > xmax ? px - xmax : 0.0);
+            double dy = py < ymin ? ymin - py : (py > ymax ? py - ymax : 0.0);
+            if (dx * dx + dy * dy >= bestDistance) continue;
+
+            double x = xs[r];
+            double y = ys[r];
+            double distance = (x - px) * (x - px) + (y - py) * (y - py);
+            if (distance < bestDistance) {
+                best = r;
+                bestDistance = distance;
+            }
+
+            // search the subtree on the same side as the query point first, so push it last
+            if (isVertical) {
+                if (px < x) {
+                    n = push(stack, bounds, n, right[r], false, x, ymin, xmax, ymax);
+                    n = push(stack, bounds, n, left[r], false, xmin, ymin, x, ymax);
+                } else {
+                    n = push(stack, bounds, n, left[r], false, xmin, ymin, x, ymax);
+                    n = push(stack, bounds, n, right[r], false, x, ymin, xmax, ymax);
+                }
+            } else {
+                if (py < y) {
+                    n = push(stack, bounds, n, right[r], true, xmin, y, xmax, ymax);
+                    n = push(stack, bounds, n, left[r], true, xmin, ymin, xmax, y);
+                } else {
+                    n = push(stack, bounds, n, left[r], true, xmin, ymin, xmax, y);
+                    n = push(stack, bounds, n, right[r], true, xmin, y, xmax, ymax);
+                }
+            }
+        }
+        return points[best];
+    }
+
+    /**
+     * unit testing of the methods
+     *
+     * inserts n random points ( default: 100000 ) into both a {@code FlatKdTree} and a {@code KdTree},
+     * then checks that both agree on {@code contains()}, {@code range()} and {@code nearest()}
+     * for random queries, and that the queries return the inserted points themselves.
+     * then does the same with n points inserted in sorted order,
+     * which makes the {@code FlatKdTree} degenerate into a path of n nodes.
+     *
+     * @param args the command-line arguments
+     */
+    public static void main(String[] args) {
+        int n = args.length > 0 ? Integer.parseInt(args[0]) : 100000;
+        Point2D[] points = new Point2D[n];
+        for (int i = 0; i < n; i++) points[i] = new Point2D(StdRandom.uniformDouble(), StdRandom.uniformDouble());
+        check(points);
+        Arrays.sort(points);
+        check(points);
+    }
+
+    // insert the points into both a FlatKdTree and a KdTree, and compare them on random queries
+    private static void check(Point2D[] points) {
+        FlatKdTree flat = new FlatKdTree();
+        KdTree kdtree = new KdTree();
+        Set<Point2D> inserted = Collections.newSetFromMap(new IdentityHashMap<Point2D, Boolean>());
+        for (Point2D p : points) {
+            flat.insert(p);
+            kdtree.insert(p);
+            inserted.add(p);
+        }
+        StdOut.println("size: " + flat.size() + " ( KdTree: " + kdtree.size() + " )");
+
+        int mismatches = 0;
+        for (int i = 0; i < 1000; i++) {
+            Point2D query = new Point2D(StdRandom.uniformDouble(), StdRandom.uniformDouble());
+            if (flat.contains(query) != kdtree.contains(query)) mismatches++;
+            Point2D nearest = flat.nearest(query);
+            if (query.distanceSquaredTo(nearest) != query.distanceSquaredTo(kdtree.nearest(query))) mismatches++;
+            if (!inserted.contains(nearest)) mismatches++;
+
+            double x = StdRandom.uniformDouble(0.0, 0.9);
+            double y = StdRandom.uniformDouble(0.0, 0.9);
+            RectHV rect = new RectHV(x, y, x + 0.1, y + 0.1);
+            int count = 0;
+            for (Point2D p : flat.range(rect)) {
+                if (inserted.contains(p)) count++;
+            }
+            for (Point2D p : kdtree.range(rect)) count--;
+            if (count != 0) mismatches++;
+        }
+        StdOut.println("mismatches: " + mismatches);
+    }
+}
@@ -0,0 +1,353 @@
+/* ******************************************************************************************************
+ *
+ *  Name:               MinJoker
+ *  Date:               19/10/2026
+ *  Libraries:          algs4.jar
+ *  Project source:     https://coursera.cs.princeton.edu/algs4/assignments/kdtree/specification.php
+ *
+ ***************************************************************************************************** */
+
+import edu.princeton.cs.algs4.Point2D;
+import edu.princeton.cs.algs4.RectHV;
+import edu.princeton.cs.algs4.Queue;
+import edu.princeton.cs.algs4.StdOut;
+import edu.princeton.cs.algs4.StdRandom;
+import java.util.Arrays;
+import java.util.function.Consumer;
+
+/**
+ * The {@code GridIndex} class represents a set of points in the unit square, using a uniform grid
+ * of g-by-g cells, which beats a tree when the points are spread about evenly.
+ *
+ * some key points as follows:
+ *
+ * 1. the points are stored in parallel arrays, and the points of a cell are chained
+ *    through {@code next[]}, starting from {@code head[cell]}. when the grid grows, the points
+ *    are reordered cell by cell ( counting sort ), so that the chain of each cell is contiguous.
+ * 2. the grid grows by a factor of 2 in each direction once there are more than
+ *    {@code MAX_LOAD} points per cell on average, so a cell holds O(1) points
+ *    when the points are uniform, and {@code contains()} takes O(1) expected time.
+ * 3. {@code range()} scans the cells that overlap the rectangle. {@code nearest()} scans
+ *    the cell of the query point, then rings of cells around it, and stops as soon as the nearest
+ *    point so far is closer than any cell outside the rings.
+ * 4. a coordinate outside [0, 1] is clamped to find its cell, so such points are kept and found,
+ *    but they are crowded in the border cells.
+ * on the other hand, clustered points crowd a few cells, and the cost of a query
+ * grows with the number of points in its cells, where a {@code KdTree} adapts to the data.
+ *
+ * more details can be found in the project source:
+ * https://coursera.cs.princeton.edu/algs4/assignments/kdtree/specification.php
+ */
+
+public class GridIndex {
+    // maximum average number of points per cell before the grid grows
+    private static final int MAX_LOAD = 4;
+    // initial number of cells along each side
+    private static final int INIT_SIDE = 4;
+
+    private double[] xs;        // x-coordinates of the points
+    private double[] ys;        // y-coordinates of the points
+    private Point2D[] points;   // the points
+    private int[] next;         // next point in the same cell, -1 if none
+    private int[] head;         // first point of each cell, -1 if none
+    private int side;           // number of cells along each side ( g )
+    private int size;           // number of points
+
+    /**
+     * construct an empty set of points
+     */
+    public GridIndex() {
+        side = INIT_SIDE;
+        head = new int[side * side];
+        Arrays.fill(head, -1);
+        xs = new double[MAX_LOAD * side * side];
+        ys = new double[MAX_LOAD * side * side];
+        points = new Point2D[MAX_LOAD * side * side];
+        next = new int[MAX_LOAD * side * side];
+        size = 0;
+    }
+
+    /**
+     * is the set empty?
+     *
+     * @return true if the set is empty, false otherwise
+     */
+    public boolean isEmpty() {
+        return size == 0;
+    }
+
+    /**
+     * number of points in the set
+     *
+     * @return the number of points in the set
+     */
+    public int size() {
+        return size;
+    }
+
+    // the column or the row of a coordinate, clamped to the grid
+    private int cellOf(double c) {
+        int i = (int) (c * side);
+        return i < 0 ? 0 : (i >= side ? side - 1 : i);
+    }
+
+    // the cell of (x, y)
+    private int cellOf(double x, double y) {
+        return cellOf(y) * side + cellOf(x);
+    }
+
+    /**
+     * add the point to the set (if it is not already in the set)
+     *
+     * @param p the point to add
+     * @throws IllegalArgumentException if the argument is null
+     */
+    public void insert(Point2D p) {
+        if (p == null) throw new IllegalArgumentException("argument to insert() is null");
+        if (contains(p)) return;
+        if (size == xs.length) grow();
+        int cell = cellOf(p.x(), p.y());
+        xs[size] = p.x();
+        ys[size] = p.y();
+        points[size] = p;
+        next[size] = head[cell];
+        head[cell] = size++;
+    }
+
+    // double the number of cells along each side, and reorder the points cell by cell
+    private void grow() {
+        side *= 2;
+        int cells = side * side;
+        int capacity = MAX_LOAD * cells;
+
+        // counting sort of the points by their new cell
+        int[] start = new int[cells + 1];
+        int[] cell = new int[size];
+        for (int i = 0; i < size; i++) {
+            cell[i] = cellOf(xs[i], ys[i]);
+            start[cell[i] + 1]++;
+        }
+        for (int c = 0; c < cells; c++) start[c + 1] += start[c];
+        double[] newXs = new double[capacity];
+        double[] newYs = new double[capacity];
+        Point2D[] newPoints = new Point2D[capacity];
+        int[] position = Arrays.copyOf(start, cells);
+        for (int i = 0; i < size; i++) {
+            int j = position[cell[i]]++;
+            newXs[j] = xs[i];
+            newYs[j] = ys[i];
+            newPoints[j] = points[i];
+        }
+        xs = newXs;
+        ys = newYs;
+        points = newPoints;
+
+        // the chain of each cell is the run of its points, in order
+        next = new int[capacity];
+        head = new int[cells];
+        for (int c = 0; c < cells; c++) {
+            head[c] = start[c] < start[c + 1] ? start[c] : -1;
+            for (int j = start[c]; j < start[c + 1]; j++) next[j] = j + 1 < start[c + 1] ? j + 1 : -1;
+        }
+    }
+
+    /**
+     * does the set contain point p?
+     *
+     * @param p the point to check
+     * @return true if the set contains p, false otherwise
+     * @throws IllegalArgumentException if the argument is null
+     */
+    public boolean contains(Point2D p) {
+        if (p == null) throw new IllegalArgumentException("argument to contains() is null");
+        double x = p.x();
+        double y = p.y();
+        for (int i = head[cellOf(x, y)]; i != -1; i = next[i]) {
+            if (xs[i] == x && ys[i] == y) return true;
+        }
+        return false;
+    }
+
+    /**
+     * draw all points to standard draw
+     */
+    public void draw() {
+        for (int i = 0; i < size; i++) {
+            points[i].draw();
+        }
+    }
+
+    /**
+     * all points that are inside the rectangle (or on the boundary)
+     *
+     * @param rect the rectangle
+     * @return all points that are inside the rectangle (or on the boundary)
+     * @throws IllegalArgumentException if the argument is null
+     */
+    public Iterable<Point2D> range(RectHV rect) {
+        if (rect == null) throw new IllegalArgumentException("argument to range() is null");
+        Queue<Point2D> queue = new Queue<Point2D>();
+        range(rect, queue::enqueue);
+        return queue;
+    }
+
+    /**
+     * pass every point that is inside the rectangle (or on the boundary) to the action
+     *
+     * @param rect the rectangle
+     * @param action the action to perform on each point
+     * @throws IllegalArgumentException if any argument is null
+     */
+    public void range(RectHV rect, Consumer<? super Point2D> action) {
+        if (rect == null) throw new IllegalArgumentException("argument to range() is null");
+        if (action == null) throw new IllegalArgumentException("action of range() is null");
+        double qxmin = rect.xmin(), qymin = rect.ymin(), qxmax = rect.xmax(), qymax = rect.ymax();
+        int colMax = cellOf(qxmax), rowMax = cellOf(qymax);
+        for (int row = cellOf(qymin); row <= rowMax; row++) {
+            for (int col = cellOf(qxmin); col <= colMax; col++) {
+                for (int i = head[row * side + col]; i != -1; i = next[i]) {
+                    if (xs[i] >= qxmin && xs[i] <= qxmax && ys[i] >= qymin && ys[i] <= qymax)
+                        action.accept(points[i]);
+                }
+            }
+        }
+    }
+
+    /**
+     * a nearest neighbor in the set to point p; null if the set is empty
+     *
+     * @param p the point to check
+     * @return a nearest neighbor in the set to point p; null if the set is empty
+     * @throws IllegalArgumentException if the argument is null
+     */
+    public Point2D nearest(Point2D p) {
+        if (p == null) throw new IllegalArgumentException("argument to nearest() is null");
+        if (isEmpty()) return null;
+        double px = p.x();
+        double py = p.y();
+        int col = cellOf(px);
+        int row = cellOf(py);
+        double cellSize = 1.0 / side;
+        int best = -1;
+        double bestDistance = Double.POSITIVE_INFINITY;
+        for (int r = 0; ; r++) {
+            // the cells at distance r from the cell of p, in rows or columns, inside the grid
+            int colMin = col - r, colMax = col + r, rowMin = row - r, rowMax = row + r;
+            for (int y = Math.max(rowMin, 0); y <= Math.min(rowMax, side - 1); y++) {
+                boolean edgeRow = y == rowMin || y == rowMax;
+                int step = edgeRow ? 1 : colMax - colMin;    // inner rows only have their two ends
+                for (int x = colMin; x <= colMax; x += Math.max(step, 1)) {
+                    if (x < 0 || x >= side) continue;
+                    for (int i = head[y * side + x]; i != -1; i = next[i]) {
+                        double distance = (xs[i] - px) * (xs[i] - px) + (ys[i] - py) * (ys[i] - py);
+                        if (distance < bestDistance) {
+                            best = i;
+                            bestDistance = distance;
+                        }
+                    }
+                }
+            }
+
+            // the points of the cells outside the rings are beyond one of the four sides of the rings,
+            // stop when the nearest point so far is no farther than every side that has cells beyond it
+            double bound = Double.POSITIVE_INFINITY;
+            if (colMin > 0)        bound = Math.min(bound, Math.max(0.0, px - colMin * cellSize));
+            if (colMax < side - 1) bound = Math.min(bound, Math.max(0.0, (colMax + 1) * cellSize - px));
+            if (rowMin > 0)        bound = Math.min(bound, Math.max(0.0, py - rowMin * cellSize));
+            if (rowMax < side - 1) bound = Math.min(bound, Math.max(0.0, (rowMax + 1) * cellSize - py));
+            if (bound == Double.POSITIVE_INFINITY || bestDistance <= bound * bound) break;
+        }
+        return points[best];
+    }
+
+    /**
+     * unit testing of the methods, and benchmark against {@code KdTree}
+     *
+     * checks that a {@code GridIndex} and a {@code KdTree} agree on {@code contains()},
+     * {@code range()} and {@code nearest()}, then times {@code nearest()}, {@code contains()}
+     * and small {@code range()} queries on both for growing sets of uniform points and of
+     * clustered points ( normal around 10 centers, standard deviation 0.01 ),
+     * up to n points ( default: 1000000 ), to show where one overtakes the other.
+     *
+     * @param args the command-line arguments
+     */
+    public static void main(String[] args) {
+        int max = args.length > 0 ? Integer.parseInt(args[0]) : 1000000;
+        int queries = 20000;
+        long sink = 0;
+        StdOut.printf("%-10s %9s %11s %11s %11s %11s %11s %11s %7s\n", "points", "n",
+                      "grid nn", "tree nn", "grid find", "tree find", "grid range", "tree range", "errors");
+        for (String distribution : new String[] { "uniform", "clustered" }) {
+            double[][] centers = new double[10][2];
+            for (double[] center : centers) {
+                center[0] = StdRandom.uniformDouble(0.1, 0.9);
+                center[1] = StdRandom.uniformDouble(0.1, 0.9);
+            }
+            for (int n = 1000; n <= max; n *= 10) {
+                Point2D[] points = new Point2D[n];
+                for (int i = 0; i < n; i++) {
+                    if (distribution.equals("uniform")) {
+                        points[i] = new Point2D(StdRandom.uniformDouble(), StdRandom.uniformDouble());
+                    } else {
+                        double[] center = centers[StdRandom.uniformInt(centers.length)];
+                        points[i] = new Point2D(StdRandom.gaussian(center[0], 0.01), StdRandom.gaussian(center[1], 0.01));
+                    }
+                }
+                GridIndex grid = new GridIndex();
+                KdTree tree = new KdTree();
+                for (Point2D point : points) {
+                    grid.insert(point);
+                    tree.insert(point);
+                }
+                // the query points follow the data
+                Point2D[] targets = new Point2D[queries];
+                RectHV[] rects = new RectHV[queries];
+                for (int i = 0; i < queries; i++) {
+                    Point2D q = points[StdRandom.uniformInt(n)];
+                    targets[i] = new Point2D(q.x() + StdRandom.gaussian(0, 0.001), q.y() + StdRandom.gaussian(0, 0.001));
+                    rects[i] = new RectHV(q.x() - 0.002, q.y() - 0.002, q.x() + 0.002, q.y() + 0.002);
+                }
+
+                int errors = grid.size() == tree.size() ? 0 : 1;
+                for (int i = 0; i < 1000; i++) {
+                    if (targets[i].distanceSquaredTo(grid.nearest(targets[i]))
+                        != targets[i].distanceSquaredTo(tree.nearest(targets[i]))) errors++;
+                    if (grid.contains(points[i % n]) != tree.contains(points[i % n])) errors++;
+                    int[] count = new int[1];
+                    grid.range(rects[i], q -> count[0]++);
+                    tree.range(rects[i], q -> count[0]--);
+                    if (count[0] != 0) errors++;
+                }
+
+                // nanoseconds per query of each kind, best of 3 runs
+                double[] times = new double[6];
+                Arrays.fill(times, Double.POSITIVE_INFINITY);
+                int[] found = new int[1];
+                for (int round = 0; round < 3; round++) {
+                    long start = System.nanoTime();
+                    for (Point2D target : targets) sink += grid.nearest(target).hashCode();
+                    times[0] = Math.min(times[0], (System.nanoTime() - start) / (double) queries);
+                    start = System.nanoTime();
+                    for (Point2D target : targets) sink += tree.nearest(target).hashCode();
+                    times[1] = Math.min(times[1], (System.nanoTime() - start) / (double) queries);
+                    start = System.nanoTime();
+                    for (Point2D target : targets) sink += grid.contains(target) ? 1 : 0;
+                    times[2] = Math.min(times[2], (System.nanoTime() - start) / (double) queries);
+                    start = System.nanoTime();
+                    for (Point2D target : targets) sink += tree.contains(target) ? 1 : 0;
+                    times[3] = Math.min(times[3], (System.nanoTime() - start) / (double) queries);
+                    start = System.nanoTime();
+                    for (RectHV rect : rects) grid.range(rect, q -> found[0]++);
+                    times[4] = Math.min(times[4], (System.nanoTime() - start) / (double) queries);
+                    start = System.nanoTime();
+                    for (RectHV rect : rects) tree.range(rect, q -> found[0]++);
+                    times[5] = Math.min(times[5], (System.nanoTime() - start) / (double) queries);
+                }
+                StdOut.printf("%-10s %9d %8.0f ns %8.0f ns %8.0f ns %8.0f ns %8.0f ns %8.0f ns %7d\n", distribution, n,
+                              times[0], times[1], times[2], times[3], times[4], times[5], errors);
+                sink += found[0];
+            }
+        }
+        if (sink == 42) StdOut.println();   // keeps the results alive
+    }
+}
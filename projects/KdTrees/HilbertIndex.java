@@ -0,0 +1,506 @@
+/* ******************************************************************************************************
+ *
+ *  Name:               MinJoker
+ *  Date:               19/10/2026
+ *  Libraries:          algs4.jar
+ *  Project source:     https://coursera.cs.princeton.edu/algs4/assignments/kdtree/specification.php
+ *
+ ***************************************************************************************************** */
+
+import edu.princeton.cs.algs4.Point2D;
+import edu.princeton.cs.algs4.RectHV;
+import edu.princeton.cs.algs4.Queue;
+import edu.princeton.cs.algs4.StdOut;
+import edu.princeton.cs.algs4.StdRandom;
+import java.util.Arrays;
+import java.util.function.Consumer;
+
+/**
+ * The {@code HilbertIndex} class represents a set of points in the unit square,
+ * packed in Hilbert-curve order, for sets that are mostly read.
+ *
+ * some key points as follows:
+ *
+ * 1. the points are sorted by their index along a Hilbert curve over a 2^16-by-2^16 grid,
+ *    and stored in parallel arrays. points close on the curve are close in the plane,
+ *    so every run of {@code BLOCK} consecutive points has a small bounding box.
+ * 2. above the blocks, a few levels of bounding boxes, each one covering {@code FANOUT} boxes
+ *    of the level below, as in a packed R-tree. the boxes of a level are in one array,
+ *    so the whole summary takes a few percent of the memory of the points.
+ * 3. {@code range()} walks the boxes that intersect the rectangle, and scans the points of each
+ *    block it reaches, or the whole run of points of a box inside the rectangle, sequentially.
+ *    {@code nearest()} scans the block where p falls on the curve first, then skips
+ *    every box farther than the nearest point so far.
+ *    {@code contains()} is a binary search on the Hilbert indices.
+ * 4. {@code insert()} adds a point to a small pending {@code KdTree}, which the queries
+ *    also search. once it holds more than 1/16 of the packed points, everything is packed
+ *    again by {@code rebuild()}, so an insertion takes O(log n) amortized time.
+ * so it is fastest on large rectangles, where the scans dominate: about 10 times faster than
+ * a {@code KdTree} on rectangles of 1% of a million uniform points, while small rectangles and
+ * {@code nearest()} cost about the same, or a little more, as the boxes of a level overlap.
+ * every query allocates its own traversal stack, of a few boxes per level, so several threads
+ * can query a {@code HilbertIndex} at once, but it must not be modified during a query.
+ *
+ * more details can be found in the project source:
+ * https://coursera.cs.princeton.edu/algs4/assignments/kdtree/specification.php
+ */
+
+public class HilbertIndex {
+    // number of points per block, the unit of the sequential scans
+    private static final int BLOCK = 64;
+    // number of boxes of a level covered by one box of the level above
+    private static final int FANOUT = 16;
+    // order of the Hilbert curve, the unit square is cut into 2^ORDER by 2^ORDER cells
+    private static final int ORDER = 16;
+    // the pending points are packed once there are more than max(MIN_PENDING, packed / PENDING_RATIO)
+    private static final int MIN_PENDING = 256;
+    private static final int PENDING_RATIO = 16;
+    // a rectangle that holds every point, to read the pending points back
+    private static final RectHV PLANE = new RectHV(Double.NEGATIVE_INFINITY, Double.NEGATIVE_INFINITY,
+                                                   Double.POSITIVE_INFINITY, Double.POSITIVE_INFINITY);
+
+    private double[] xs;                // x-coordinates of the packed points, in Hilbert order
+    private double[] ys;                // y-coordinates of the packed points, in Hilbert order
+    private Point2D[] points;           // the packed points, in Hilbert order
+    private long[] keys;                // Hilbert indices of the packed points, in order
+    private int packed;                 // number of packed points
+    private double[][] boxes;           // xmin, ymin, xmax, ymax of each box, level 0 being the blocks
+    private KdTree pending;             // the points inserted since the last rebuild
+    private int stackSize;              // room needed by the traversal stack of a query
+
+    // the traversal stack of a query: boxes, by level and index
+    private static class Stack {
+        private final int[] level;      // levels of the boxes
+        private final int[] index;      // indices of the boxes in their level
+        private int n;                  // number of boxes on the stack
+
+        Stack(int capacity) {
+            level = new int[capacity];
+            index = new int[capacity];
+        }
+    }
+
+    /**
+     * construct an empty set of points
+     */
+    public HilbertIndex() {
+        this(new Point2D[0]);
+    }
+
+    /**
+     * construct a set of the given points, packed at once
+     *
+     * @param points the points, duplicates are kept only once
+     * @throws IllegalArgumentException if the argument is null, or if any point is null
+     */
+    public HilbertIndex(Point2D[] points) {
+        if (points == null) throw new IllegalArgumentException("argument to HilbertIndex() is null");
+        for (Point2D p : points)
+            if (p == null) throw new IllegalArgumentException("point in HilbertIndex() is null");
+        pack(points.clone());
+    }
+
+    /**
+     * is the set empty?
+     *
+     * @return true if the set is empty, false otherwise
+     */
+    public boolean isEmpty() {
+        return size() == 0;
+    }
+
+    /**
+     * number of points in the set
+     *
+     * @return the number of points in the set
+     */
+    public int size() {
+        return packed + pending.size();
+    }
+
+    // index of (x, y) along the Hilbert curve, the coordinates are clamped to the unit square
+    private static long key(double x, double y) {
+        int side = 1 << ORDER;
+        int hx = quantize(x), hy = quantize(y);
+        long d = 0;
+        for (int s = side / 2; s > 0; s /= 2) {
+            int rx = (hx & s) > 0 ? 1 : 0;
+            int ry = (hy & s) > 0 ? 1 : 0;
+            d += (long) s * s * ((3 * rx) ^ ry);
+            // rotate the quadrant, so that the curve inside it starts and ends at the right corners
+            if (ry == 0) {
+                if (rx == 1) {
+                    hx = s - 1 - hx;
+                    hy = s - 1 - hy;
+                }
+                int t = hx;
+                hx = hy;
+                hy = t;
+            }
+        }
+        return d;
+    }
+
+    // map a coordinate of the unit square to [0, 2^ORDER)
+    private static int quantize(double coordinate) {
+        return (int) (Math.min(Math.max(coordinate, 0.0), 1.0) * ((1 << ORDER) - 1));
+    }
+
+    // sort the points along the curve, drop the duplicates, and build the boxes
+    private void pack(Point2D[] all) {
+        int n = all.length;
+        // the keys are below 2^32, so a key and an index fit in a long, and sort together
+        long[] order = new long[n];
+        for (int i = 0; i < n; i++)
+            order[i] = (key(all[i].x(), all[i].y()) << 31) | i;
+        Arrays.sort(order);
+        Point2D[] sorted = new Point2D[n];
+        for (int i = 0; i < n; i++) sorted[i] = all[(int) (order[i] & Integer.MAX_VALUE)];
+
+        xs = new double[n];
+        ys = new double[n];
+        points = new Point2D[n];
+        keys = new long[n];
+        packed = 0;
+        for (int lo = 0; lo < n; ) {
+            // equal points have equal keys, so the duplicates are within a run of equal keys
+            long key = order[lo] >>> 31;
+            int hi = lo + 1;
+            while (hi < n && order[hi] >>> 31 == key) hi++;
+            if (hi - lo > 1) Arrays.sort(sorted, lo, hi);
+            for (int i = lo; i < hi; i++) {
+                if (i > lo && sorted[i].equals(sorted[i - 1])) continue;
+                xs[packed] = sorted[i].x();
+                ys[packed] = sorted[i].y();
+                points[packed] = sorted[i];
+                keys[packed] = key;
+                packed++;
+            }
+            lo = hi;
+        }
+
+        // level 0 has a box per block, every level above has a box per FANOUT boxes below,
+        // up to a level of at most FANOUT boxes
+        int levels = 1;
+        for (int count = blocks(packed); count > FANOUT; count = (count + FANOUT - 1) / FANOUT) levels++;
+        boxes = new double[levels][];
+        boxes[0] = new double[4 * blocks(packed)];
+        for (int b = 0; 4 * b < boxes[0].length; b++) {
+            double xmin = Double.POSITIVE_INFINITY, ymin = Double.POSITIVE_INFINITY;
+            double xmax = Double.NEGATIVE_INFINITY, ymax = Double.NEGATIVE_INFINITY;
+            for (int i = b * BLOCK; i < Math.min((b + 1) * BLOCK, packed); i++) {
+                xmin = Math.min(xmin, xs[i]);
+                ymin = Math.min(ymin, ys[i]);
+                xmax = Math.max(xmax, xs[i]);
+                ymax = Math.max(ymax, ys[i]);
+            }
+            setBox(boxes[0], b, xmin, ymin, xmax, ymax);
+        }
+        for (int l = 1; l < levels; l++) {
+            double[] below = boxes[l - 1];
+            int count = (below.length / 4 + FANOUT - 1) / FANOUT;
+            boxes[l] = new double[4 * count];
+            for (int b = 0; b < count; b++) {
+                double xmin = Double.POSITIVE_INFINITY, ymin = Double.POSITIVE_INFINITY;
+                double xmax = Double.NEGATIVE_INFINITY, ymax = Double.NEGATIVE_INFINITY;
+                for (int c = b * FANOUT; c < Math.min((b + 1) * FANOUT, below.length / 4); c++) {
+                    xmin = Math.min(xmin, below[4 * c]);
+                    ymin = Math.min(ymin, below[4 * c + 1]);
+                    xmax = Math.max(xmax, below[4 * c + 2]);
+                    ymax = Math.max(ymax, below[4 * c + 3]);
+                }
+                setBox(boxes[l], b, xmin, ymin, xmax, ymax);
+            }
+        }
+        stackSize = levels * FANOUT;
+        pending = new KdTree();
+    }
+
+    // number of blocks of n points
+    private static int blocks(int n) {
+        return (n + BLOCK - 1) / BLOCK;
+    }
+
+    private static void setBox(double[] level, int b, double xmin, double ymin, double xmax, double ymax) {
+        level[4 * b] = xmin;
+        level[4 * b + 1] = ymin;
+        level[4 * b + 2] = xmax;
+        level[4 * b + 3] = ymax;
+    }
+
+    // the packed points covered by box b of the given level are [first(level, b), first(level, b + 1))
+    private int first(int level, int b) {
+        long first = b;
+        for (int l = 0; l < level; l++) first *= FANOUT;
+        return (int) Math.min(first * BLOCK, packed);
+    }
+
+    /**
+     * add the point to the set (if it is not already in the set)
+     *
+     * the point is kept apart until the next rebuild, which happens on its own
+     * once there are enough such points.
+     *
+     * @param p the point to add
+     * @throws IllegalArgumentException if the argument is null
+     */
+    public void insert(Point2D p) {
+        if (p == null) throw new IllegalArgumentException("argument to insert() is null");
+        if (findPacked(p.x(), p.y()) >= 0) return;
+        pending.insert(p);
+        if (pending.size() > Math.max(MIN_PENDING, packed / PENDING_RATIO)) rebuild();
+    }
+
+    /**
+     * pack the points inserted since the last rebuild with the others
+     */
+    public void rebuild() {
+        if (pending.isEmpty()) return;
+        Point2D[] all = Arrays.copyOf(points, size());
+        int[] n = { packed };
+        pending.range(PLANE, p -> all[n[0]++] = p);
+        pack(all);
+    }
+
+    // index of the packed point (x, y), or -1 if there is none
+    private int findPacked(double x, double y) {
+        long key = key(x, y);
+        int lo = 0, hi = packed;
+        while (lo < hi) {
+            int mid = (lo + hi) >>> 1;
+            if (keys[mid] < key) lo = mid + 1;
+            else                 hi = mid;
+        }
+        for (int i = lo; i < packed && keys[i] == key; i++) {
+            if (xs[i] == x && ys[i] == y) return i;
+        }
+        return -1;
+    }
+
+    /**
+     * does the set contain point p?
+     *
+     * @param p the point to check
+     * @return true if the set contains p, false otherwise
+     * @throws IllegalArgumentException if the argument is null
+     */
+    public boolean contains(Point2D p) {
+        if (p == null) throw new IllegalArgumentException("argument to contains() is null");
+        return findPacked(p.x(), p.y()) >= 0 || pending.contains(p);
+    }
+
+    /**
+     * draw all points to standard draw
+     */
+    public void draw() {
+        for (int i = 0; i < packed; i++) {
+            points[i].draw();
+        }
+        pending.draw();
+    }
+
+    /**
+     * all points that are inside the rectangle (or on the boundary)
+     *
+     * @param rect the rectangle
+     * @return all points that are inside the rectangle (or on the boundary)
+     * @throws IllegalArgumentException if the argument is null
+     */
+    public Iterable<Point2D> range(RectHV rect) {
+        if (rect == null) throw new IllegalArgumentException("argument to range() is null");
+        Queue<Point2D> queue = new Queue<Point2D>();
+        range(rect, queue::enqueue);
+        return queue;
+    }
+
+    /**
+     * pass every point that is inside the rectangle (or on the boundary) to the action
+     *
+     * the action may query this HilbertIndex, but it must not modify it.
+     *
+     * @param rect the rectangle
+     * @param action the action to perform on each point
+     * @throws IllegalArgumentException if any argument is null
+     */
+    public void range(RectHV rect, Consumer<? super Point2D> action) {
+        if (rect == null) throw new IllegalArgumentException("argument to range() is null");
+        if (action == null) throw new IllegalArgumentException("action of range() is null");
+        double qxmin = rect.xmin(), qymin = rect.ymin(), qxmax = rect.xmax(), qymax = rect.ymax();
+        Stack stack = pushTop();
+        int[] hits = new int[BLOCK];    // indices found by a block scan
+        while (stack.n > 0) {
+            int level = stack.level[--stack.n];
+            int b = stack.index[stack.n];
+            double[] box = boxes[level];
+            double xmin = box[4 * b], ymin = box[4 * b + 1], xmax = box[4 * b + 2], ymax = box[4 * b + 3];
+            if (xmin > qxmax || xmax < qxmin || ymin > qymax || ymax < qymin) continue;
+
+            if (xmin >= qxmin && xmax <= qxmax && ymin >= qymin && ymax <= qymax) {
+                // the box is inside the rectangle, so are all of its points
+                for (int i = first(level, b), hi = first(level, b + 1); i < hi; i++) action.accept(points[i]);
+            } else if (level == 0) {
+                int found = PointScanner.range(xs, ys, b * BLOCK, Math.min((b + 1) * BLOCK, packed),
+                                               qxmin, qymin, qxmax, qymax, hits);
+                for (int i = 0; i < found; i++) action.accept(points[hits[i]]);
+            } else {
+                pushChildren(stack, level, b);
+            }
+        }
+        pending.range(rect, action);
+    }
+
+    // a new traversal stack, with the boxes of the top level on it
+    private Stack pushTop() {
+        Stack stack = new Stack(stackSize);
+        int top = boxes.length - 1;
+        for (int b = boxes[top].length / 4 - 1; b >= 0; b--) {
+            stack.level[stack.n] = top;
+            stack.index[stack.n++] = b;
+        }
+        return stack;
+    }
+
+    // push the boxes below box b of the given level, the first one last
+    private void pushChildren(Stack stack, int level, int b) {
+        int count = boxes[level - 1].length / 4;
+        for (int c = Math.min((b + 1) * FANOUT, count) - 1; c >= b * FANOUT; c--) {
+            stack.level[stack.n] = level - 1;
+            stack.index[stack.n++] = c;
+        }
+    }
+
+    /**
+     * a nearest neighbor in the set to point p; null if the set is empty
+     *
+     * @param p the point to check
+     * @return a nearest neighbor in the set to point p; null if the set is empty
+     * @throws IllegalArgumentException if the argument is null
+     */
+    public Point2D nearest(Point2D p) {
+        if (p == null) throw new IllegalArgumentException("argument to nearest() is null");
+        Point2D best = pending.nearest(p);
+        if (packed == 0) return best;
+        double px = p.x();
+        double py = p.y();
+        double bestDistance = best == null ? Double.POSITIVE_INFINITY : p.distanceSquaredTo(best);
+
+        // the block where p falls on the curve usually holds a close point, which makes a good bound
+        long key = key(px, py);
+        int lo = 0, hi = packed;
+        while (lo < hi) {
+            int mid = (lo + hi) >>> 1;
+            if (keys[mid] < key) lo = mid + 1;
+            else                 hi = mid;
+        }
+        int start = Math.min(lo, packed - 1) / BLOCK;
+        int i = PointScanner.nearest(xs, ys, start * BLOCK, Math.min((start + 1) * BLOCK, packed), px, py);
+        double distance = (xs[i] - px) * (xs[i] - px) + (ys[i] - py) * (ys[i] - py);
+        if (distance < bestDistance) {
+            best = points[i];
+            bestDistance = distance;
+        }
+
+        Stack stack = pushTop();
+        while (stack.n > 0) {
+            int level = stack.level[--stack.n];
+            int b = stack.index[stack.n];
+            double[] box = boxes[level];
+            double dx = px < box[4 * b] ? box[4 * b] - px : (px > box[4 * b + 2] ? px - box[4 * b + 2] : 0.0);
+            double dy = py < box[4 * b + 1] ? box[4 * b + 1] - py : (py > box[4 * b + 3] ? py - box[4 * b + 3] : 0.0);
+            if (dx * dx + dy * dy >= bestDistance) continue;
+            if (level > 0) {
+                pushChildren(stack, level, b);
+                continue;
+            }
+            if (b == start) continue;   // already scanned
+            i = PointScanner.nearest(xs, ys, b * BLOCK, Math.min((b + 1) * BLOCK, packed), px, py);
+            distance = (xs[i] - px) * (xs[i] - px) + (ys[i] - py) * (ys[i] - py);
+            if (distance < bestDistance) {
+                best = points[i];
+                bestDistance = distance;
+            }
+        }
+        return best;
+    }
+
+    /**
+     * unit testing of the methods, and benchmark against {@code KdTree}
+     *
+     * packs n random points ( default: 1000000 ) at once, and inserts n / 10 more one by one,
+     * checks that the {@code HilbertIndex} agrees with a {@code KdTree} on {@code contains()},
+     * {@code range()} and {@code nearest()}, then times {@code range()} for rectangles
+     * of growing size, and {@code nearest()}, on both.
+     *
+     * @param args the command-line arguments
+     */
+    public static void main(String[] args) {
+        int n = args.length > 0 ? Integer.parseInt(args[0]) : 1000000;
+        Point2D[] points = new Point2D[n];
+        for (int i = 0; i < n; i++)
+            points[i] = new Point2D(StdRandom.uniformDouble(), StdRandom.uniformDouble());
+        HilbertIndex index = new HilbertIndex(points);
+        KdTree tree = KdTree.build(points);
+        for (int i = 0; i < n / 10; i++) {
+            Point2D p = new Point2D(StdRandom.uniformDouble(), StdRandom.uniformDouble());
+            index.insert(p);
+            tree.insert(p);
+        }
+        index.insert(points[0]);
+        StdOut.println("size: " + index.size() + " ( KdTree: " + tree.size() + " )");
+
+        int queries = 10000;
+        Point2D[] targets = new Point2D[queries];
+        for (int i = 0; i < queries; i++)
+            targets[i] = new Point2D(StdRandom.uniformDouble(), StdRandom.uniformDouble());
+        int mismatches = 0;
+        for (int i = 0; i < queries; i++) {
+            if (index.contains(points[i % n]) != tree.contains(points[i % n])) mismatches++;
+            if (index.contains(targets[i]) != tree.contains(targets[i])) mismatches++;
+            if (targets[i].distanceSquaredTo(index.nearest(targets[i]))
+                != targets[i].distanceSquaredTo(tree.nearest(targets[i]))) mismatches++;
+            double side = StdRandom.uniformDouble(0.0, 0.05);
+            RectHV rect = new RectHV(targets[i].x() * (1 - side), targets[i].y() * (1 - side),
+                                     targets[i].x() * (1 - side) + side, targets[i].y() * (1 - side) + side);
+            int[] count = new int[1];
+            index.range(rect, q -> count[0]++);
+            tree.range(rect, q -> count[0]--);
+            if (count[0] != 0) mismatches++;
+        }
+        StdOut.println("mismatches: " + mismatches);
+
+        long[] found = new long[1];
+        for (double side : new double[] { 0.001, 0.01, 0.1 }) {
+            RectHV[] rects = new RectHV[queries];
+            for (int i = 0; i < queries; i++) {
+                double x = StdRandom.uniformDouble(0.0, 1 - side);
+                double y = StdRandom.uniformDouble(0.0, 1 - side);
+                rects[i] = new RectHV(x, y, x + side, y + side);
+            }
+            // about 10^7 points reported per round, at most one round per rectangle
+            int rounds = (int) Math.min(queries, Math.max(100, 1e7 / (n * side * side)));
+            long indexTime = 0, treeTime = 0;
+            for (int round = 0; round < 3; round++) {   // the first rounds warm up the JIT
+                long start = System.nanoTime();
+                for (int i = 0; i < rounds; i++) index.range(rects[i], q -> found[0]++);
+                indexTime = System.nanoTime() - start;
+                start = System.nanoTime();
+                for (int i = 0; i < rounds; i++) tree.range(rects[i], q -> found[0]++);
+                treeTime = System.nanoTime() - start;
+            }
+            StdOut.printf("range %5.3f x %5.3f: %8d ns ( KdTree: %8d ns )\n", side, side,
+                          indexTime / rounds, treeTime / rounds);
+        }
+        long indexTime = 0, treeTime = 0;
+        for (int round = 0; round < 3; round++) {
+            long start = System.nanoTime();
+            for (Point2D target : targets) found[0] += index.nearest(target).hashCode();
+            indexTime = System.nanoTime() - start;
+            start = System.nanoTime();
+            for (Point2D target : targets) found[0] += tree.nearest(target).hashCode();
+            treeTime = System.nanoTime() - start;
+        }
+        StdOut.printf("nearest:             %8d ns ( KdTree: %8d ns )\n",
+                      indexTime / queries, treeTime / queries);
+        if (found[0] == 42) StdOut.println();   // keeps the results alive
+    }
+}
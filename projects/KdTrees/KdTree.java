@@ -14,23 +14,193 @@ import edu.princeton.cs.algs4.Queue;
 import edu.princeton.cs.algs4.In;
 import edu.princeton.cs.algs4.StdOut;
 import edu.princeton.cs.algs4.StdDraw;
+import edu.princeton.cs.algs4.StdRandom;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.channels.FileChannel;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Spliterator;
+import java.util.function.Consumer;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+import java.util.concurrent.RecursiveTask;
+import java.util.concurrent.atomic.LongAdder;
 
 /**
  * The {@code KdTree} class represents a set of points in the unit square, using a 2d-tree.
  * 
+ * a tree built by {@code insert()} depends on the insertion order, and degenerates into
+ * a path if the points arrive sorted. {@code build()} loads all points at once instead,
+ * splitting at the median of each subtree, so that the tree is perfectly balanced.
+ * 
+ * points can be removed with {@code delete()}, and the tree is kept balanced in the manner
+ * of a scapegoat tree:
+ * 1. a deleted node stays in the tree as a tombstone, it is skipped by the queries.
+ *    once tombstones outnumber the points, the whole tree is rebuilt with the points only.
+ * 2. every node knows the number of nodes in its subtree. when an insertion goes deeper than
+ *    log_{1/alpha} of the number of nodes, the first ancestor up the path whose child holds more
+ *    than alpha of its nodes ( the scapegoat ) is rebuilt into a balanced subtree.
+ * so the depth stays O(log n) under any mix of insertions and deletions, without full rebuilds
+ * on a schedule, and both operations take O(log n) amortized time.
+ * 
+ * all traversals are iterative, so a degenerate tree cannot overflow the call stack.
+ * the rectangle of a node is not stored: it is computed during the descent, from the
+ * bounds of the parent and its split coordinate, and kept with the node on an explicit stack.
+ * the stack ( a {@code Cursor} ) is allocated once per thread, kept in a {@code ThreadLocal},
+ * and reused by every query of the thread, so {@code contains()}, {@code nearest()},
+ * {@code withinRadius()} and {@code range(RectHV, Consumer)} do not allocate.
+ * the queries only read the tree, so several threads can query a {@code KdTree} at once,
+ * and the action of {@code range(RectHV, Consumer)} can query it too: a query that finds
+ * the cursor of its thread in use gets a new one. the tree must not be modified during a query.
+ * 
+ * {@code range(RectHV, Consumer)} and {@code countRange()} do not collect the points, and
+ * {@code rangeSpliterator()} hands them out one at a time, so that a stream over them can stop
+ * early or run in parallel, each part walking its own subtrees.
+ * 
+ * {@code approximateNearest(p, epsilon)} and {@code approximateNearest(p, epsilon, maxNodes)}
+ * give up exactness for fewer visited nodes, and {@code nodesVisited()} reports the cost
+ * of the last search.
+ * 
+ * run with {@code -Dkdtree.stats=true}, the queries also count the nodes they visit, the subtrees
+ * they prune and the rectangles they check, see {@code stats()}. the flag is a static final field,
+ * so the counting code is removed by the JIT when it is off. {@code shapeReport()} tells
+ * whether a slow query is due to the shape of the tree rather than to the query point.
+ * 
+ * {@code save()} writes the tree to a file as a flat array of nodes, which
+ * {@code MappedKdTree} queries in place, without rebuilding the tree.
+ * 
  * more details can be found in the project source:
  * https://coursera.cs.princeton.edu/algs4/assignments/kdtree/specification.php
  */
 
 public class KdTree {
-    private Node root;  // root of the KdTree
-    private int size;   // number of points
+    // subtrees smaller than this are built sequentially by a parallel build()
+    private static final int PARALLEL_THRESHOLD = 1 << 13;
+    // batches smaller than this are answered sequentially by a batch nearest()
+    private static final int BATCH_THRESHOLD = 1 << 10;
+    // weight balance of the scapegoat rule, between 1/2 ( strict ) and 1 ( lax )
+    private static final double ALPHA = 0.7;
+    // do the queries count their work? ( -Dkdtree.stats=true )
+    private static final boolean STATS = Boolean.getBoolean("kdtree.stats");
+
+    private Node root;              // root of the KdTree
+    private int size;               // number of points
+    private int deleted;            // number of deleted nodes still in the tree
+    private volatile int visited;   // nodes visited by the last single-point nearest search
+
+    // counters of stats(), added up from the cursors as the queries end, if enabled
+    private final LongAdder queries = new LongAdder();
+    private final LongAdder reached = new LongAdder();
+    private final LongAdder pruned = new LongAdder();
+    private final LongAdder checks = new LongAdder();
+
+    // the cursor of each thread
+    private static final ThreadLocal<Cursor> CURSORS = ThreadLocal.withInitial(Cursor::new);
 
     private static class Node {
-        private Point2D point;      // the point
-        private RectHV rect;    // the axis-aligned rectangle corresponding to this node
-        private Node left;        // the left/bottom subtree
-        private Node right;        // the right/top subtree
+        private final Point2D point;    // the point
+        private final double x, y;      // the coordinates of point, to avoid dereferencing it
+        private Node left;              // the left/bottom subtree
+        private Node right;             // the right/top subtree
+        private int count;              // number of nodes in the subtree, deleted ones included
+        private boolean isDeleted;      // has the point been deleted?
+
+        Node(Point2D point) {
+            this.point = point;
+            this.x = point.x();
+            this.y = point.y();
+            this.count = 1;
+        }
+    }
+
+    // an explicit stack of nodes and their rectangles, for iterative traversals
+    private static class Cursor {
+        private Node[] nodes = new Node[64];            // the nodes
+        private boolean[] vertical = new boolean[64];   // is the node split vertically?
+        private double[] bounds = new double[4 * 64];   // xmin, ymin, xmax, ymax of each node
+        private int[] depths = new int[64];             // depth of each node, for depthHistogram()
+        private int n;                                  // number of nodes on the stack
+        private final NeighborHeap heap = new NeighborHeap();   // for k nearest neighbors
+        private Node[] path = new Node[64];             // the search path of insert()
+        private int visited;                            // nodes visited by the last nearest()
+        private long queries, reached, pruned, checks;  // counters of the current query, if enabled
+        private boolean inUse;                          // is a query of the thread using it?
+
+        // empty the stack, then push root with the unit square
+        // ( an exception thrown by a consumer may have left nodes on it )
+        void start(Node root) {
+            while (n > 0) nodes[--n] = null;
+            push(root, true, 0, 0, 1, 1);
+        }
+
+        // push a node with its rectangle, ignoring null
+        void push(Node node, boolean isVertical, double xmin, double ymin, double xmax, double ymax) {
+            if (node == null) return;
+            if (n == nodes.length) {
+                nodes = Arrays.copyOf(nodes, 2 * n);
+                vertical = Arrays.copyOf(vertical, 2 * n);
+                bounds = Arrays.copyOf(bounds, 8 * n);
+                depths = Arrays.copyOf(depths, 2 * n);
+            }
+            nodes[n] = node;
+            vertical[n] = isVertical;
+            bounds[4 * n] = xmin;
+            bounds[4 * n + 1] = ymin;
+            bounds[4 * n + 2] = xmax;
+            bounds[4 * n + 3] = ymax;
+            n++;
+        }
+
+        // push a node at the given depth, with the unit square, ignoring null
+        void push(Node node, boolean isVertical, int depth) {
+            if (node == null) return;
+            push(node, isVertical, 0, 0, 1, 1);
+            depths[n - 1] = depth;
+        }
+
+        // push both children of r, whose rectangle is [xmin, xmax] x [ymin, ymax], the first one last
+        void pushChildren(Node r, boolean isVertical, boolean leftFirst,
+                          double xmin, double ymin, double xmax, double ymax) {
+            if (leftFirst) {
+                pushRight(r, isVertical, xmin, ymin, xmax, ymax);
+                pushLeft(r, isVertical, xmin, ymin, xmax, ymax);
+            } else {
+                pushLeft(r, isVertical, xmin, ymin, xmax, ymax);
+                pushRight(r, isVertical, xmin, ymin, xmax, ymax);
+            }
+        }
+
+        void pushLeft(Node r, boolean isVertical, double xmin, double ymin, double xmax, double ymax) {
+            if (isVertical) push(r.left, false, xmin, ymin, r.x, ymax);
+            else            push(r.left, true, xmin, ymin, xmax, r.y);
+        }
+
+        void pushRight(Node r, boolean isVertical, double xmin, double ymin, double xmax, double ymax) {
+            if (isVertical) push(r.right, false, r.x, ymin, xmax, ymax);
+            else            push(r.right, true, xmin, r.y, xmax, ymax);
+        }
+
+        // pop the top node, its rectangle stays readable at bounds[4 * n ..]
+        Node pop() {
+            Node node = nodes[--n];
+            nodes[n] = null;    // to avoid loitering
+            return node;
+        }
+
+        // squared distance from (px, py) to the rectangle of the node just popped
+        double distanceSquared(double px, double py) {
+            int i = 4 * n;
+            double dx = px < bounds[i] ? bounds[i] - px : (px > bounds[i + 2] ? px - bounds[i + 2] : 0.0);
+            double dy = py < bounds[i + 1] ? bounds[i + 1] - py : (py > bounds[i + 3] ? py - bounds[i + 3] : 0.0);
+            return dx * dx + dy * dy;
+        }
     }
 
     /**
@@ -39,6 +209,31 @@ public class KdTree {
     public KdTree() {
         root = null;
         size = 0;
+        deleted = 0;
+    }
+
+    // the cursor of the calling thread, or a new one if a query of the thread is using it
+    // ( an action of range() that queries a KdTree )
+    private static Cursor acquire() {
+        Cursor c = CURSORS.get();
+        if (c.inUse) c = new Cursor();
+        c.inUse = true;
+        return c;
+    }
+
+    // give back a cursor, adding its counters to the stats of this tree
+    private void release(Cursor c) {
+        if (STATS) {
+            queries.add(c.queries);
+            reached.add(c.reached);
+            pruned.add(c.pruned);
+            checks.add(c.checks);
+            c.queries = 0;
+            c.reached = 0;
+            c.pruned = 0;
+            c.checks = 0;
+        }
+        c.inUse = false;
     }
 
     /**
@@ -67,27 +262,258 @@ public class KdTree {
      */
     public void insert(Point2D p) {
         if (p == null) throw new IllegalArgumentException("argument to insert() is null");
-        root = insert(root, p, true, 0, 0, 1, 1);
+        Cursor c = acquire();
+        try {
+            insert(p, c);
+        } finally {
+            release(c);
+        }
     }
 
-    // insert the point p into the KdTree rooted at r
-    private Node insert(Node r, Point2D p, boolean isVertical, double xmin, double ymin, double xmax, double ymax) {
-        if (r == null) {
-            Node node = new Node();
-            node.point = p;
-            node.rect = new RectHV(xmin, ymin, xmax, ymax);
-            size++;
+    // add the point, keeping its search path in the cursor
+    private void insert(Point2D p, Cursor c) {
+        double x = p.x();
+        double y = p.y();
+        Node[] path = c.path;
+        int depth = 0;
+        Node r = root;
+        boolean isVertical = true;
+        boolean goLeft = false;
+        while (r != null) {
+            if (r.x == x && r.y == y) {
+                if (r.isDeleted) {
+                    // bring the tombstone back to life
+                    r.isDeleted = false;
+                    size++;
+                    deleted--;
+                }
+                return;
+            }
+            if (depth == path.length) path = c.path = Arrays.copyOf(path, 2 * depth);
+            path[depth++] = r;
+            goLeft = isVertical ? x < r.x : y < r.y;
+            r = goLeft ? r.left : r.right;
+            isVertical = !isVertical;
+        }
+
+        Node node = new Node(p);
+        if (depth == 0)  root = node;
+        else if (goLeft) path[depth - 1].left = node;
+        else             path[depth - 1].right = node;
+        for (int i = 0; i < depth; i++) path[i].count++;
+        size++;
+
+        // the new node is at the given depth, rebuild a scapegoat if that is too deep
+        if (depth > Math.log(root.count) / Math.log(1 / ALPHA)) {
+            Node child = node;
+            for (int i = depth - 1; i >= 0; i--) {
+                if (child.count > ALPHA * path[i].count) {
+                    rebuild(path, i);
+                    break;
+                }
+                child = path[i];
+            }
+        }
+        Arrays.fill(path, 0, depth, null);  // to avoid loitering
+    }
+
+    // rebuild the subtree rooted at path[i] into a balanced one, dropping its deleted nodes
+    private void rebuild(Node[] path, int i) {
+        Node old = path[i];
+        Point2D[] points = collect(old);
+        Node subtree = build(points, 0, points.length, i % 2 == 0);
+        int removed = old.count - points.length;
+        if (i == 0)                      root = subtree;
+        else if (path[i - 1].left == old) path[i - 1].left = subtree;
+        else                             path[i - 1].right = subtree;
+        for (int j = 0; j < i; j++) path[j].count -= removed;
+        deleted -= removed;
+    }
+
+    // the points of the subtree rooted at r that are not deleted
+    private static Point2D[] collect(Node r) {
+        Point2D[] points = new Point2D[r == null ? 0 : r.count];
+        int n = 0;
+        java.util.ArrayDeque<Node> stack = new java.util.ArrayDeque<Node>();
+        if (r != null) stack.push(r);
+        while (!stack.isEmpty()) {
+            Node node = stack.pop();
+            if (!node.isDeleted) points[n++] = node.point;
+            if (node.left != null) stack.push(node.left);
+            if (node.right != null) stack.push(node.right);
+        }
+        return Arrays.copyOf(points, n);
+    }
+
+    /**
+     * remove the point from the set (if it is in the set)
+     * 
+     * the node of the point is only marked as deleted,
+     * and the whole tree is rebuilt once more than half of its nodes are deleted.
+     * 
+     * @param p the point to remove
+     * @throws IllegalArgumentException if the argument is null
+     */
+    public void delete(Point2D p) {
+        if (p == null) throw new IllegalArgumentException("argument to delete() is null");
+        Node r = find(p);
+        if (r == null || r.isDeleted) return;
+        r.isDeleted = true;
+        size--;
+        deleted++;
+        if (deleted > size) {
+            Point2D[] points = collect(root);
+            root = build(points, 0, points.length, true);
+            deleted = 0;
+        }
+    }
+
+    // the node of point p, deleted or not, or null if there is none
+    private Node find(Point2D p) {
+        double x = p.x();
+        double y = p.y();
+        Node r = root;
+        boolean isVertical = true;
+        while (r != null) {
+            if (r.x == x && r.y == y) return r;
+            if (isVertical) r = x < r.x ? r.left : r.right;
+            else            r = y < r.y ? r.left : r.right;
+            isVertical = !isVertical;
+        }
+        return null;
+    }
+
+    /**
+     * build a balanced KdTree from the given points
+     * 
+     * @param points the points, duplicates are ignored
+     * @return a balanced KdTree of the points
+     * @throws IllegalArgumentException if the argument or any point is null
+     */
+    public static KdTree build(Point2D[] points) {
+        return build(points, false);
+    }
+
+    /**
+     * build a balanced KdTree from the given points, optionally
+     * building disjoint subtrees in parallel with fork/join
+     * 
+     * the points are sorted once to drop duplicates, then each subtree is built
+     * by selecting the median along its split axis in linear expected time ( quickselect ),
+     * so the tree has depth floor(lg n) and is built in O(n log n).
+     * 
+     * @param points the points, duplicates are ignored
+     * @param parallel whether to build subtrees in parallel
+     * @return a balanced KdTree of the points
+     * @throws IllegalArgumentException if the argument or any point is null
+     */
+    public static KdTree build(Point2D[] points, boolean parallel) {
+        if (points == null) throw new IllegalArgumentException("argument to build() is null");
+        Point2D[] a = points.clone();
+        for (Point2D p : a)
+            if (p == null) throw new IllegalArgumentException("point in build() is null");
+
+        // remove duplicates
+        if (parallel) Arrays.parallelSort(a);
+        else          Arrays.sort(a);
+        int n = 0;
+        for (int i = 0; i < a.length; i++)
+            if (n == 0 || !a[i].equals(a[n - 1])) a[n++] = a[i];
+
+        KdTree tree = new KdTree();
+        tree.size = n;
+        if (parallel) tree.root = ForkJoinPool.commonPool().invoke(new BuildTask(a, 0, n, true));
+        else          tree.root = build(a, 0, n, true);
+        return tree;
+    }
+
+    // build a balanced KdTree of a[lo, hi)
+    private static Node build(Point2D[] a, int lo, int hi, boolean isVertical) {
+        if (lo >= hi) return null;
+        int mid = partition(a, lo, hi, isVertical);
+        Node node = new Node(a[mid]);
+        node.left = build(a, lo, mid, !isVertical);
+        node.right = build(a, mid + 1, hi, !isVertical);
+        node.count = hi - lo;
+        return node;
+    }
+
+    // the same as build(), but builds the two subtrees of large ranges in parallel
+    // ( a task is never serialized, so it has no serialVersionUID )
+    @SuppressWarnings("serial")
+    private static class BuildTask extends RecursiveTask<Node> {
+        private final Point2D[] a;
+        private final int lo, hi;
+        private final boolean isVertical;
+
+        BuildTask(Point2D[] a, int lo, int hi, boolean isVertical) {
+            this.a = a;
+            this.lo = lo;
+            this.hi = hi;
+            this.isVertical = isVertical;
+        }
+
+        @Override
+        protected Node compute() {
+            if (hi - lo < PARALLEL_THRESHOLD) return build(a, lo, hi, isVertical);
+            int mid = partition(a, lo, hi, isVertical);
+            Node node = new Node(a[mid]);
+            BuildTask left = new BuildTask(a, lo, mid, !isVertical);
+            BuildTask right = new BuildTask(a, mid + 1, hi, !isVertical);
+            left.fork();
+            node.right = right.compute();
+            node.left = left.join();
+            node.count = hi - lo;
             return node;
         }
-        if (r.point.equals(p)) return r;
-        if (isVertical) {
-            if (p.x() < r.point.x()) r.left = insert(r.left, p, !isVertical, xmin, ymin, r.point.x(), ymax);
-            else r.right = insert(r.right, p, !isVertical, r.point.x(), ymin, xmax, ymax);
-        } else {
-            if (p.y() < r.point.y()) r.left = insert(r.left, p, !isVertical, xmin, ymin, xmax, r.point.y());
-            else r.right = insert(r.right, p, !isVertical, xmin, r.point.y(), xmax, ymax);
+    }
+
+    // the split coordinate of p
+    private static double key(Point2D p, boolean isVertical) {
+        return isVertical ? p.x() : p.y();
+    }
+
+    // put the median of a[lo, hi) at some index m and return m, so that
+    // every point in a[lo, m) has a smaller key, and every point in a(m, hi) has a key no smaller,
+    // which is the same rule insert() follows ( ties go to the right/top subtree )
+    private static int partition(Point2D[] a, int lo, int hi, boolean isVertical) {
+        int k = lo + (hi - lo) / 2;
+        select(a, lo, hi - 1, k, isVertical);
+        double median = key(a[k], isVertical);
+
+        // points equal to the median may have ended up on the left, move them next to it
+        int m = lo;
+        for (int i = lo; i < k; i++) {
+            if (key(a[i], isVertical) < median) swap(a, i, m++);
         }
-        return r;
+        swap(a, k, m);
+        return m;
+    }
+
+    // rearrange a[lo..hi] so that a[k] is the point with the k-th smallest key ( quickselect )
+    private static void select(Point2D[] a, int lo, int hi, int k, boolean isVertical) {
+        while (lo < hi) {
+            // 3-way partition around a random pivot, so that sorted input and
+            // many equal keys ( e.g. grid-aligned points ) stay linear
+            double pivot = key(a[lo + StdRandom.uniformInt(hi - lo + 1)], isVertical);
+            int lt = lo, gt = hi, i = lo;
+            while (i <= gt) {
+                double c = key(a[i], isVertical);
+                if      (c < pivot) swap(a, lt++, i++);
+                else if (c > pivot) swap(a, i, gt--);
+                else                i++;
+            }
+            if      (k < lt) hi = lt - 1;
+            else if (k > gt) lo = gt + 1;
+            else             return;
+        }
+    }
+
+    // exchange a[i] and a[j]
+    private static void swap(Point2D[] a, int i, int j) {
+        Point2D swap = a[i];
+        a[i] = a[j];
+        a[j] = swap;
     }
 
     /**
@@ -99,45 +525,44 @@ public class KdTree {
      */
     public boolean contains(Point2D p) {
         if (p == null) throw new IllegalArgumentException("argument to contains() is null");
-        return contains(root, p, true);
-    }
-
-    // does the KdTree rooted at r contain point p?
-    private boolean contains(Node r, Point2D p, boolean isVertical) {
-        if (r == null) return false;
-        if (r.point.equals(p)) return true;
-        if (isVertical) {
-            if (p.x() < r.point.x()) return contains(r.left, p, !isVertical);
-            else return contains(r.right, p, !isVertical);
-        } else {
-            if (p.y() < r.point.y()) return contains(r.left, p, !isVertical);
-            else return contains(r.right, p, !isVertical);
-        }
+        Node r = find(p);
+        return r != null && !r.isDeleted;
     }
 
     /**
      * draw all points to standard draw
      */
     public void draw() {
-        draw(root, true);
+        Cursor c = acquire();
+        try {
+            draw(c);
+        } finally {
+            release(c);
+        }
     }
 
-    // draw the KdTree rooted at r
-    private void draw(Node r, boolean isVertical) {
-        if (r == null) return;
-        r.point.draw();
-        draw(r.left, !isVertical);
-        draw(r.right, !isVertical);
+    // draw the points and the splitting lines, using the given cursor
+    private void draw(Cursor c) {
+        c.start(root);
+        while (c.n > 0) {
+            boolean isVertical = c.vertical[c.n - 1];
+            Node r = c.pop();
+            int i = 4 * c.n;
+            double xmin = c.bounds[i], ymin = c.bounds[i + 1], xmax = c.bounds[i + 2], ymax = c.bounds[i + 3];
+            if (!r.isDeleted) r.point.draw();
 
-        // draw the splitting line, for debugging
-        if (isVertical) {
-            StdDraw.setPenColor(StdDraw.RED);
-            StdDraw.setPenRadius();
-            StdDraw.line(r.point.x(), r.rect.ymin(), r.point.x(), r.rect.ymax());
-        } else {
-            StdDraw.setPenColor(StdDraw.BLUE);
-            StdDraw.setPenRadius();
-            StdDraw.line(r.rect.xmin(), r.point.y(), r.rect.xmax(), r.point.y());
+            // draw the splitting line, for debugging
+            if (isVertical) {
+                StdDraw.setPenColor(StdDraw.RED);
+                StdDraw.setPenRadius();
+                StdDraw.line(r.x, ymin, r.x, ymax);
+            } else {
+                StdDraw.setPenColor(StdDraw.BLUE);
+                StdDraw.setPenRadius();
+                StdDraw.line(xmin, r.y, xmax, r.y);
+            }
+            StdDraw.setPenColor(StdDraw.BLACK);
+            c.pushChildren(r, isVertical, true, xmin, ymin, xmax, ymax);
         }
     }
 
@@ -151,16 +576,231 @@ public class KdTree {
     public Iterable<Point2D> range(RectHV rect) {
         if (rect == null) throw new IllegalArgumentException("argument to range() is null");
         Queue<Point2D> queue = new Queue<Point2D>();
-        range(root, rect, queue);
+        range(rect, queue::enqueue);
         return queue;
     }
 
-    // all points that are inside the rectangle (or on the boundary) rooted at r
-    private void range(Node r, RectHV rect, Queue<Point2D> queue) {
-        if (r == null) return;
-        if (rect.contains(r.point)) queue.enqueue(r.point);
-        if (r.left != null && rect.intersects(r.left.rect)) range(r.left, rect, queue);
-        if (r.right != null && rect.intersects(r.right.rect)) range(r.right, rect, queue);
+    /**
+     * pass every point that is inside the rectangle (or on the boundary) to the action,
+     * without collecting them first
+     * 
+     * the action may query this KdTree, but it must not modify it.
+     * 
+     * @param rect the rectangle
+     * @param action the action to perform on each point
+     * @throws IllegalArgumentException if any argument is null
+     */
+    public void range(RectHV rect, Consumer<? super Point2D> action) {
+        if (rect == null) throw new IllegalArgumentException("argument to range() is null");
+        if (action == null) throw new IllegalArgumentException("action of range() is null");
+        Cursor c = acquire();
+        try {
+            range(rect, action, c);
+        } finally {
+            release(c);
+        }
+    }
+
+    // pass every point inside the rectangle to the action, using the given cursor
+    private void range(RectHV rect, Consumer<? super Point2D> action, Cursor c) {
+        double qxmin = rect.xmin(), qymin = rect.ymin(), qxmax = rect.xmax(), qymax = rect.ymax();
+        if (STATS) c.queries++;
+        c.start(root);
+        while (c.n > 0) {
+            boolean isVertical = c.vertical[c.n - 1];
+            Node r = c.pop();
+            int i = 4 * c.n;
+            double xmin = c.bounds[i], ymin = c.bounds[i + 1], xmax = c.bounds[i + 2], ymax = c.bounds[i + 3];
+            if (STATS) c.reached++;
+            if (!r.isDeleted && r.x >= qxmin && r.x <= qxmax && r.y >= qymin && r.y <= qymax)
+                action.accept(r.point);
+
+            // only descend into the children whose rectangle intersects the query rectangle
+            // the left/bottom rectangle ends at the split, the right/top one starts at it
+            double split = isVertical ? r.x : r.y;
+            double qmin = isVertical ? qxmin : qymin;
+            double qmax = isVertical ? qxmax : qymax;
+            if (STATS) count(c, r, qmin <= split, qmax >= split);
+            if (qmax >= split) c.pushRight(r, isVertical, xmin, ymin, xmax, ymax);
+            if (qmin <= split) c.pushLeft(r, isVertical, xmin, ymin, xmax, ymax);
+        }
+    }
+
+    /**
+     * number of points that are inside the rectangle (or on the boundary)
+     * 
+     * when no point has been deleted, a subtree whose rectangle is inside the query rectangle
+     * is counted at once from the number of nodes it holds, without visiting it, so large
+     * rectangles cost about as much as small ones.
+     * 
+     * @param rect the rectangle
+     * @return the number of points inside the rectangle (or on the boundary)
+     * @throws IllegalArgumentException if the argument is null
+     */
+    public int countRange(RectHV rect) {
+        if (rect == null) throw new IllegalArgumentException("argument to countRange() is null");
+        Cursor c = acquire();
+        try {
+            return countRange(rect, c);
+        } finally {
+            release(c);
+        }
+    }
+
+    // number of points inside the rectangle, using the given cursor
+    private int countRange(RectHV rect, Cursor c) {
+        double qxmin = rect.xmin(), qymin = rect.ymin(), qxmax = rect.xmax(), qymax = rect.ymax();
+        int count = 0;
+        if (STATS) c.queries++;
+        // the root gets the whole plane instead of the unit square, so that a subtree
+        // whose rectangle is inside the query rectangle has all of its points inside it
+        c.start(null);
+        c.push(root, true, Double.NEGATIVE_INFINITY, Double.NEGATIVE_INFINITY,
+               Double.POSITIVE_INFINITY, Double.POSITIVE_INFINITY);
+        while (c.n > 0) {
+            boolean isVertical = c.vertical[c.n - 1];
+            Node r = c.pop();
+            int i = 4 * c.n;
+            double xmin = c.bounds[i], ymin = c.bounds[i + 1], xmax = c.bounds[i + 2], ymax = c.bounds[i + 3];
+            if (STATS) c.reached++;
+            if (deleted == 0 && xmin >= qxmin && xmax <= qxmax && ymin >= qymin && ymax <= qymax) {
+                count += r.count;
+                continue;
+            }
+            if (!r.isDeleted && r.x >= qxmin && r.x <= qxmax && r.y >= qymin && r.y <= qymax) count++;
+
+            double split = isVertical ? r.x : r.y;
+            double qmin = isVertical ? qxmin : qymin;
+            double qmax = isVertical ? qxmax : qymax;
+            if (STATS) count(c, r, qmin <= split, qmax >= split);
+            if (qmax >= split) c.pushRight(r, isVertical, xmin, ymin, xmax, ymax);
+            if (qmin <= split) c.pushLeft(r, isVertical, xmin, ymin, xmax, ymax);
+        }
+        return count;
+    }
+
+    /**
+     * a lazy spliterator over the points that are inside the rectangle (or on the boundary)
+     * 
+     * the points are found one at a time, as {@code tryAdvance()} asks for them, so a stream
+     * that stops early ( {@code findFirst()}, {@code limit()}, {@code anyMatch()} ) does not
+     * walk the rest of the tree. {@code trySplit()} hands half of the subtrees left to walk
+     * to a new spliterator, so {@code StreamSupport.stream(tree.rangeSpliterator(rect), true)}
+     * searches the subtrees in parallel. the spliterator has its own stack, as it outlives
+     * the call, and the tree must not be modified until it is done.
+     * 
+     * @param rect the rectangle
+     * @return a spliterator over the points inside the rectangle (or on the boundary)
+     * @throws IllegalArgumentException if the argument is null
+     */
+    public Spliterator<Point2D> rangeSpliterator(RectHV rect) {
+        if (rect == null) throw new IllegalArgumentException("argument to rangeSpliterator() is null");
+        RangeSpliterator spliterator = new RangeSpliterator(rect);
+        spliterator.push(root, true, false);
+        return spliterator;
+    }
+
+    // walks the subtrees on its stack, reporting the points inside a rectangle one at a time
+    private static class RangeSpliterator implements Spliterator<Point2D> {
+        private final RectHV rect;                      // the query rectangle
+        private final double qxmin, qymin, qxmax, qymax;
+        private Node[] nodes = new Node[16];            // the subtrees left to walk
+        private boolean[] vertical = new boolean[16];   // is the root of the subtree split vertically?
+        private boolean[] pointOnly = new boolean[16];  // is only the point of the root left?
+        private int n;                                  // number of subtrees on the stack
+
+        RangeSpliterator(RectHV rect) {
+            this.rect = rect;
+            this.qxmin = rect.xmin();
+            this.qymin = rect.ymin();
+            this.qxmax = rect.xmax();
+            this.qymax = rect.ymax();
+        }
+
+        // push a subtree, ignoring null
+        void push(Node node, boolean isVertical, boolean isPointOnly) {
+            if (node == null) return;
+            if (n == nodes.length) {
+                nodes = Arrays.copyOf(nodes, 2 * n);
+                vertical = Arrays.copyOf(vertical, 2 * n);
+                pointOnly = Arrays.copyOf(pointOnly, 2 * n);
+            }
+            nodes[n] = node;
+            vertical[n] = isVertical;
+            pointOnly[n] = isPointOnly;
+            n++;
+        }
+
+        // push the children of r whose rectangle intersects the query rectangle
+        private void pushChildren(Node r, boolean isVertical) {
+            double split = isVertical ? r.x : r.y;
+            if ((isVertical ? qxmax : qymax) >= split) push(r.right, !isVertical, false);
+            if ((isVertical ? qxmin : qymin) <= split) push(r.left, !isVertical, false);
+        }
+
+        @Override
+        public boolean tryAdvance(Consumer<? super Point2D> action) {
+            if (action == null) throw new NullPointerException("action of tryAdvance() is null");
+            while (n > 0) {
+                Node r = nodes[--n];
+                nodes[n] = null;    // to avoid loitering
+                if (!pointOnly[n]) pushChildren(r, vertical[n]);
+                if (!r.isDeleted && r.x >= qxmin && r.x <= qxmax && r.y >= qymin && r.y <= qymax) {
+                    action.accept(r.point);
+                    return true;
+                }
+            }
+            return false;
+        }
+
+        @Override
+        public Spliterator<Point2D> trySplit() {
+            // a single subtree is opened first: its point stays, and its children can be split
+            if (n == 1 && !pointOnly[0]) {
+                Node r = nodes[0];
+                boolean isVertical = vertical[0];
+                n = 0;
+                push(r, isVertical, true);
+                pushChildren(r, isVertical);
+            }
+            if (n < 2) return null;
+
+            // the bottom of the stack holds the largest subtrees, half of the entries go
+            RangeSpliterator prefix = new RangeSpliterator(rect);
+            int half = n / 2;
+            for (int i = 0; i < half; i++) prefix.push(nodes[i], vertical[i], pointOnly[i]);
+            System.arraycopy(nodes, half, nodes, 0, n - half);
+            System.arraycopy(vertical, half, vertical, 0, n - half);
+            System.arraycopy(pointOnly, half, pointOnly, 0, n - half);
+            Arrays.fill(nodes, n - half, n, null);
+            n -= half;
+            return prefix;
+        }
+
+        // an upper bound: the number of nodes left to walk
+        @Override
+        public long estimateSize() {
+            long size = 0;
+            for (int i = 0; i < n; i++) size += pointOnly[i] ? 1 : nodes[i].count;
+            return size;
+        }
+
+        @Override
+        public int characteristics() {
+            return DISTINCT | NONNULL;
+        }
+    }
+
+    // count the rectangle checks of the children of r in range(), and the children pruned by them
+    private static void count(Cursor c, Node r, boolean intersectsLeft, boolean intersectsRight) {
+        if (r.left != null) {
+            c.checks++;
+            if (!intersectsLeft) c.pruned++;
+        }
+        if (r.right != null) {
+            c.checks++;
+            if (!intersectsRight) c.pruned++;
+        }
     }
 
     /**
@@ -172,38 +812,551 @@ public class KdTree {
      */
     public Point2D nearest(Point2D p) {
         if (p == null) throw new IllegalArgumentException("argument to nearest() is null");
-        if (isEmpty()) return null;
-        return nearest(root, p, root.point, true);
-    }
-
-    // a nearest neighbor in the KdTree rooted at r to point p
-    private Point2D nearest(Node r, Point2D p, Point2D nearest, boolean isVertical) {
-        if (r == null) return nearest;
-        if (r.point.distanceSquaredTo(p) < nearest.distanceSquaredTo(p)) nearest = r.point;
-        // there is no need to search a node (or its subtrees) if
-        // the nearest distance so far is closer than the distance between
-        // the query point and the rectangle corresponding to the node
-        if (maybeNearest(r, p, nearest)) {
-            // determine which subtree to search first
-            boolean goLeftFirst = false;
-            if (isVertical && p.x() < r.point.x()) goLeftFirst = true;
-            if (!isVertical && p.y() < r.point.y()) goLeftFirst = true;
-            if (goLeftFirst) {
-                nearest = nearest(r.left, p, nearest, !isVertical);
-                nearest = nearest(r.right, p, nearest, !isVertical);
-            } else {
-                nearest = nearest(r.right, p, nearest, !isVertical);
-                nearest = nearest(r.left, p, nearest, !isVertical);
+        return search(p, 1.0, Integer.MAX_VALUE, Double.POSITIVE_INFINITY);
+    }
+
+    /**
+     * an approximate nearest neighbor in the set to point p; null if the set is empty
+     * 
+     * a subtree is skipped as soon as its rectangle is no closer than the nearest distance
+     * so far divided by ( 1 + epsilon ), so the point returned is at most ( 1 + epsilon ) times
+     * farther from p than a nearest neighbor, and far fewer nodes are visited when
+     * many points are at about the same distance. {@code epsilon = 0} gives a nearest neighbor.
+     * 
+     * @param p the point to check
+     * @param epsilon the relative error allowed on the distance
+     * @return a point at most ( 1 + epsilon ) times farther from p than a nearest neighbor;
+     *         null if the set is empty
+     * @throws IllegalArgumentException if {@code p} is null, or unless {@code epsilon >= 0}
+     */
+    public Point2D approximateNearest(Point2D p, double epsilon) {
+        return approximateNearest(p, epsilon, Integer.MAX_VALUE);
+    }
+
+    /**
+     * an approximate nearest neighbor in the set to point p, visiting at most maxNodes nodes;
+     * null if the set is empty
+     * 
+     * the search is the same as {@code approximateNearest(p, epsilon)}, but it stops after visiting
+     * maxNodes nodes, and returns the nearest point found so far. as the subtree on the side
+     * of p is searched first, this point is usually close, and the time of the query is bounded
+     * whatever the query point, at the cost of the guarantee on the distance.
+     * 
+     * @param p the point to check
+     * @param epsilon the relative error allowed on the distance
+     * @param maxNodes the maximum number of nodes to visit
+     * @return the nearest point found within the budget; null if the set is empty,
+     *         or if every point visited within the budget was deleted
+     * @throws IllegalArgumentException if {@code p} is null, or unless {@code epsilon >= 0}
+     *         and {@code maxNodes >= 1}
+     */
+    public Point2D approximateNearest(Point2D p, double epsilon, int maxNodes) {
+        if (p == null) throw new IllegalArgumentException("argument to approximateNearest() is null");
+        if (!(epsilon >= 0.0)) throw new IllegalArgumentException("epsilon must be non-negative");
+        if (maxNodes < 1) throw new IllegalArgumentException("maxNodes must be positive");
+        return search(p, (1.0 + epsilon) * (1.0 + epsilon), maxNodes, Double.POSITIVE_INFINITY);
+    }
+
+    /**
+     * number of nodes visited by the last call to {@code nearest()} on a single point
+     * or to {@code approximateNearest()}, to compare the cost of exact and approximate searches
+     * ( when several threads search at once, the last one to finish )
+     * 
+     * @return the number of nodes whose point was compared with the query point
+     */
+    public int nodesVisited() {
+        return visited;
+    }
+
+    // a nearest neighbor to point p among the points whose squared distance to p is less than bound,
+    // or null if there is none, for searches over several trees ( see LogKdTree )
+    Point2D nearestWithin(Point2D p, double bound) {
+        return search(p, 1.0, Integer.MAX_VALUE, bound);
+    }
+
+    // a single-point nearest neighbor search with the cursor of the calling thread,
+    // see nearest(Point2D, Cursor, double, int, double) for the arguments
+    private Point2D search(Point2D p, double factor, int maxNodes, double bound) {
+        Cursor c = acquire();
+        try {
+            if (STATS) c.queries++;
+            c.visited = 0;
+            Point2D best = isEmpty() ? null : nearest(p, c, factor, maxNodes, bound);
+            visited = c.visited;
+            return best;
+        } finally {
+            release(c);
+        }
+    }
+
+    // a nearest neighbor in the ( non-empty ) KdTree to point p, using the given cursor
+    private Point2D nearest(Point2D p, Cursor c) {
+        return nearest(p, c, 1.0, Integer.MAX_VALUE, Double.POSITIVE_INFINITY);
+    }
+
+    // an approximate nearest neighbor in the ( non-empty ) KdTree to point p, using the given cursor,
+    // where factor is ( 1 + epsilon )^2, the search stops after visiting maxNodes nodes,
+    // and only the points whose squared distance to p is less than bound are considered
+    private Point2D nearest(Point2D p, Cursor c, double factor, int maxNodes, double bound) {
+        double px = p.x();
+        double py = p.y();
+        Node best = null;
+        double bestDistance = bound;
+        int visited = 0;
+        c.start(root);
+        while (c.n > 0 && visited < maxNodes) {
+            boolean isVertical = c.vertical[c.n - 1];
+            Node r = c.pop();
+            // there is no need to search a node (or its subtrees) if
+            // the nearest distance so far is closer than the distance between
+            // the query point and the rectangle corresponding to the node
+            // ( scaled by the allowed error )
+            if (STATS) c.checks++;
+            if (c.distanceSquared(px, py) * factor >= bestDistance) {
+                if (STATS) c.pruned++;
+                continue;
+            }
+            visited++;
+            double distance = (r.x - px) * (r.x - px) + (r.y - py) * (r.y - py);
+            if (distance < bestDistance && !r.isDeleted) {
+                best = r;
+                bestDistance = distance;
+            }
+            // search the subtree on the same side as the query point first
+            int i = 4 * c.n;
+            boolean goLeftFirst = isVertical ? px < r.x : py < r.y;
+            c.pushChildren(r, isVertical, goLeftFirst, c.bounds[i], c.bounds[i + 1], c.bounds[i + 2], c.bounds[i + 3]);
+        }
+        c.visited = visited;
+        if (STATS) c.reached += visited;
+        return best == null ? null : best.point;
+    }
+
+    /**
+     * a nearest neighbor in the set to each of the query points, computed in parallel
+     * 
+     * the queries are first put in Morton ( Z-order ) order, so that queries answered
+     * one after another are close to each other and walk mostly the same nodes,
+     * then chunks of consecutive queries are answered in parallel on the common fork/join pool.
+     * the tree is only read during a batch, so no locking is needed,
+     * but it must not be modified by another thread until the batch returns.
+     * 
+     * @param queries the points to check
+     * @param out the buffer that receives the answers, {@code out[i]} is
+     *        a nearest neighbor to {@code queries[i]}, or null if the set is empty
+     * @throws IllegalArgumentException if any argument or query point is null,
+     *         or if {@code out} is shorter than {@code queries}
+     */
+    public void nearest(Point2D[] queries, Point2D[] out) {
+        if (queries == null) throw new IllegalArgumentException("argument to nearest() is null");
+        if (out == null) throw new IllegalArgumentException("buffer of nearest() is null");
+        if (out.length < queries.length) throw new IllegalArgumentException("buffer of nearest() is too short");
+        for (Point2D q : queries)
+            if (q == null) throw new IllegalArgumentException("query point in nearest() is null");
+        if (isEmpty()) {
+            Arrays.fill(out, 0, queries.length, null);
+            return;
+        }
+
+        // sort the query indices by Morton code, packed above the 31 bits of the index in each key
+        // ( the code uses all 32 bits, so it is widened without sign extension, and the key
+        // stays non-negative, so that the signed sort is the Morton order )
+        long[] order = new long[queries.length];
+        for (int i = 0; i < queries.length; i++)
+            order[i] = ((morton(queries[i]) & 0xFFFFFFFFL) << 31) | i;
+        Arrays.parallelSort(order);
+
+        ForkJoinPool.commonPool().invoke(new NearestTask(queries, out, order, 0, order.length));
+    }
+
+    // answers the queries order[lo, hi) of a batch nearest(), splitting large ranges in two
+    // ( a task is never serialized, so it has no serialVersionUID )
+    @SuppressWarnings("serial")
+    private class NearestTask extends RecursiveAction {
+        private final Point2D[] queries;
+        private final Point2D[] out;
+        private final long[] order;
+        private final int lo, hi;
+
+        NearestTask(Point2D[] queries, Point2D[] out, long[] order, int lo, int hi) {
+            this.queries = queries;
+            this.out = out;
+            this.order = order;
+            this.lo = lo;
+            this.hi = hi;
+        }
+
+        @Override
+        protected void compute() {
+            if (hi - lo <= BATCH_THRESHOLD) {
+                Cursor c = acquire();
+                try {
+                    for (int i = lo; i < hi; i++) {
+                        int index = (int) (order[i] & Integer.MAX_VALUE);   // the low 31 bits of the key
+                        if (STATS) c.queries++;
+                        out[index] = nearest(queries[index], c);
+                    }
+                } finally {
+                    release(c);
+                }
+                return;
+            }
+            int mid = lo + (hi - lo) / 2;
+            invokeAll(new NearestTask(queries, out, order, lo, mid),
+                      new NearestTask(queries, out, order, mid, hi));
+        }
+    }
+
+    // Morton code of p: the bits of its x and y coordinates on a 2^16 grid, interleaved
+    private static int morton(Point2D p) {
+        return spread(quantize(p.x())) | (spread(quantize(p.y())) << 1);
+    }
+
+    // map a coordinate of the unit square to [0, 2^16)
+    private static int quantize(double coordinate) {
+        return (int) (Math.min(Math.max(coordinate, 0.0), 1.0) * 0xFFFF);
+    }
+
+    // spread the lower 16 bits of v to the even bits of the result
+    private static int spread(int v) {
+        v = (v | (v << 8)) & 0x00FF00FF;
+        v = (v | (v << 4)) & 0x0F0F0F0F;
+        v = (v | (v << 2)) & 0x33333333;
+        v = (v | (v << 1)) & 0x55555555;
+        return v;
+    }
+
+    /**
+     * the k nearest neighbors in the set to point p, in order of increasing distance
+     * 
+     * the search keeps the k nearest points so far in a bounded max-heap,
+     * and skips a subtree whenever its rectangle is no closer than the farthest of them,
+     * which is the same pruning as {@code nearest()}.
+     * 
+     * @param p the point to check
+     * @param k the number of neighbors
+     * @param out the buffer that receives the neighbors, nearest first
+     * @return the number of neighbors found, that is, {@code min(k, size())}
+     * @throws IllegalArgumentException if {@code p} or {@code out} is null,
+     *         or unless {@code 0 <= k <= out.length}
+     */
+    public int nearest(Point2D p, int k, Point2D[] out) {
+        if (p == null) throw new IllegalArgumentException("argument to nearest() is null");
+        if (out == null) throw new IllegalArgumentException("buffer of nearest() is null");
+        if (k < 0 || k > out.length) throw new IllegalArgumentException("k must be between 0 and " + out.length);
+        if (k == 0) return 0;
+        Cursor c = acquire();
+        try {
+            return nearest(p, k, out, c);
+        } finally {
+            release(c);
+        }
+    }
+
+    // the k nearest neighbors to point p, using the given cursor and its heap
+    private int nearest(Point2D p, int k, Point2D[] out, Cursor c) {
+        double px = p.x();
+        double py = p.y();
+        NeighborHeap heap = c.heap;
+        heap.reset(out, k);
+        if (STATS) c.queries++;
+        c.start(root);
+        while (c.n > 0) {
+            boolean isVertical = c.vertical[c.n - 1];
+            Node r = c.pop();
+            if (STATS) c.checks++;
+            if (c.distanceSquared(px, py) >= heap.bound()) {
+                if (STATS) c.pruned++;
+                continue;
             }
+            if (STATS) c.reached++;
+            if (!r.isDeleted) heap.offer(r.point, (r.x - px) * (r.x - px) + (r.y - py) * (r.y - py));
+            int i = 4 * c.n;
+            boolean goLeftFirst = isVertical ? px < r.x : py < r.y;
+            c.pushChildren(r, isVertical, goLeftFirst, c.bounds[i], c.bounds[i + 1], c.bounds[i + 2], c.bounds[i + 3]);
         }
-        return nearest;
+        return heap.sort();
     }
 
-    // check if the KdTree rooted at r may contain a point that is nearer to p than nearest
-    private boolean maybeNearest(Node r, Point2D p, Point2D nearest) {
-        if (r == null) return false;
-        if (r.rect.distanceSquaredTo(p) < nearest.distanceSquaredTo(p)) return true;
-        return false;
+    // a max-heap of at most k points keyed by their squared distance to the query point
+    private static class NeighborHeap {
+        private Point2D[] points;                   // heap-ordered points, stored in the caller's buffer
+        private double[] distances = new double[0]; // distances[i] is the squared distance of points[i]
+        private int k;                              // maximum number of points
+        private int n;                              // number of points
+
+        // empty the heap, and make it store at most k points in the given buffer
+        void reset(Point2D[] points, int k) {
+            this.points = points;
+            if (distances.length < k) distances = new double[k];
+            this.k = k;
+            this.n = 0;
+        }
+
+        // squared distance a point must beat to get in
+        double bound() {
+            return n < k ? Double.POSITIVE_INFINITY : distances[0];
+        }
+
+        // add the point if there is room, or if it is nearer than the farthest one
+        void offer(Point2D point, double distance) {
+            if (n < k) {
+                points[n] = point;
+                distances[n] = distance;
+                swim(n++);
+            } else if (distance < distances[0]) {
+                points[0] = point;
+                distances[0] = distance;
+                sink(0, n);
+            }
+        }
+
+        // heapsort the points into increasing distance, return their number
+        int sort() {
+            for (int m = n - 1; m > 0; m--) {
+                exch(0, m);
+                sink(0, m);
+            }
+            points = null;  // to avoid loitering
+            return n;
+        }
+
+        private void swim(int i) {
+            while (i > 0 && distances[(i - 1) / 2] < distances[i]) {
+                exch(i, (i - 1) / 2);
+                i = (i - 1) / 2;
+            }
+        }
+
+        private void sink(int i, int m) {
+            while (2 * i + 1 < m) {
+                int j = 2 * i + 1;
+                if (j + 1 < m && distances[j] < distances[j + 1]) j++;
+                if (distances[i] >= distances[j]) break;
+                exch(i, j);
+                i = j;
+            }
+        }
+
+        private void exch(int i, int j) {
+            Point2D point = points[i];
+            points[i] = points[j];
+            points[j] = point;
+            double distance = distances[i];
+            distances[i] = distances[j];
+            distances[j] = distance;
+        }
+    }
+
+    /**
+     * all points in the set within distance r of point p (boundary included)
+     * 
+     * @param p the point to check
+     * @param r the radius
+     * @param out the collection that receives the points, in no particular order
+     * @return the number of points added to {@code out}
+     * @throws IllegalArgumentException if {@code p} or {@code out} is null,
+     *         or if {@code r} is negative or NaN
+     */
+    public int withinRadius(Point2D p, double r, Collection<? super Point2D> out) {
+        if (p == null) throw new IllegalArgumentException("argument to withinRadius() is null");
+        if (out == null) throw new IllegalArgumentException("buffer of withinRadius() is null");
+        if (!(r >= 0)) throw new IllegalArgumentException("radius must be non-negative");
+        Cursor c = acquire();
+        try {
+            return withinRadius(p, r, out, c);
+        } finally {
+            release(c);
+        }
+    }
+
+    // the points within distance r of point p, using the given cursor
+    private int withinRadius(Point2D p, double r, Collection<? super Point2D> out, Cursor c) {
+        double px = p.x();
+        double py = p.y();
+        double r2 = r * r;
+        int count = 0;
+        if (STATS) c.queries++;
+        c.start(root);
+        while (c.n > 0) {
+            boolean isVertical = c.vertical[c.n - 1];
+            Node node = c.pop();
+            if (STATS) c.checks++;
+            if (c.distanceSquared(px, py) > r2) {
+                if (STATS) c.pruned++;
+                continue;
+            }
+            if (STATS) c.reached++;
+            if (!node.isDeleted && (node.x - px) * (node.x - px) + (node.y - py) * (node.y - py) <= r2) {
+                out.add(node.point);
+                count++;
+            }
+            int i = 4 * c.n;
+            c.pushChildren(node, isVertical, true, c.bounds[i], c.bounds[i + 1], c.bounds[i + 2], c.bounds[i + 3]);
+        }
+        return count;
+    }
+
+    /**
+     * the work counters of the queries since the last {@code resetStats()}, all zero unless
+     * the program runs with {@code -Dkdtree.stats=true}
+     * 
+     * the counters are "queries" ( the single-point {@code nearest()}, k nearest neighbors,
+     * {@code withinRadius()}, {@code range()} and {@code countRange()} calls ), "nodes.visited" ( nodes whose point was
+     * compared with the query ), "subtrees.pruned" ( subtrees skipped as their rectangle cannot
+     * hold an answer ) and "rect.checks" ( rectangles compared with the query, a check against
+     * the split line counting as one ). to get them per query, reset them before the query.
+     * each query adds its counts when it ends, so the queries of several threads are all counted.
+     * {@code rangeSpliterator()} is not counted, as it walks the tree on its own stack.
+     * 
+     * @return the counters by name, in a fixed order
+     */
+    public Map<String, Long> stats() {
+        Map<String, Long> stats = new LinkedHashMap<String, Long>();
+        stats.put("queries", queries.sum());
+        stats.put("nodes.visited", reached.sum());
+        stats.put("subtrees.pruned", pruned.sum());
+        stats.put("rect.checks", checks.sum());
+        return stats;
+    }
+
+    /**
+     * set the counters of {@code stats()} to zero
+     */
+    public void resetStats() {
+        queries.reset();
+        reached.reset();
+        pruned.reset();
+        checks.reset();
+    }
+
+    /**
+     * are the counters of {@code stats()} enabled?
+     * 
+     * @return true if the program runs with {@code -Dkdtree.stats=true}, false otherwise
+     */
+    public static boolean statsEnabled() {
+        return STATS;
+    }
+
+    /**
+     * number of nodes at each depth of the tree, deleted ones included
+     * 
+     * @return an array whose entry d is the number of nodes at depth d ( the root is at depth 0 ),
+     *         so its length minus one is the maximum depth; an empty array if the tree is empty
+     */
+    public int[] depthHistogram() {
+        Cursor c = acquire();
+        try {
+            return depthHistogram(c);
+        } finally {
+            release(c);
+        }
+    }
+
+    // number of nodes at each depth, using the given cursor
+    private int[] depthHistogram(Cursor c) {
+        int[] histogram = new int[0];
+        c.start(null);
+        c.push(root, true, 0);
+        while (c.n > 0) {
+            int depth = c.depths[c.n - 1];
+            boolean isVertical = c.vertical[c.n - 1];
+            Node r = c.pop();
+            if (depth == histogram.length) histogram = Arrays.copyOf(histogram, Math.max(2 * depth, 16));
+            histogram[depth]++;
+            c.push(r.right, !isVertical, depth + 1);
+            c.push(r.left, !isVertical, depth + 1);
+        }
+        int height = histogram.length;
+        while (height > 0 && histogram[height - 1] == 0) height--;
+        return Arrays.copyOf(histogram, height);
+    }
+
+    /**
+     * a report on the shape of the tree: its number of nodes, maximum and average depth,
+     * balance factor and depth histogram
+     * 
+     * the balance factor is the maximum depth divided by the maximum depth of a perfectly
+     * balanced tree with as many nodes, floor(lg n): 1 for a tree made by {@code build()},
+     * and around 2 for a tree grown by {@code insert()}, which the scapegoat rule keeps bounded
+     * whatever the insertion order.
+     * 
+     * @return the report, one value per line
+     */
+    public String shapeReport() {
+        int[] histogram = depthHistogram();
+        int nodes = root == null ? 0 : root.count;
+        int maxDepth = histogram.length - 1;
+        long depthSum = 0;
+        for (int d = 0; d < histogram.length; d++) depthSum += (long) d * histogram[d];
+        int balancedDepth = 31 - Integer.numberOfLeadingZeros(Math.max(nodes, 1));
+
+        StringBuilder report = new StringBuilder();
+        report.append("nodes: ").append(nodes).append(" ( deleted: ").append(deleted).append(" )\n");
+        report.append("max depth: ").append(Math.max(maxDepth, 0)).append('\n');
+        report.append(String.format("average depth: %.2f\n", nodes == 0 ? 0.0 : (double) depthSum / nodes));
+        report.append(String.format("balance factor: %.2f\n",
+                                    balancedDepth == 0 ? 1.0 : (double) maxDepth / balancedDepth));
+        for (int d = 0; d < histogram.length; d++)
+            report.append(String.format("depth %3d: %d\n", d, histogram[d]));
+        return report.toString();
+    }
+
+    /**
+     * write the KdTree to a file, in the format read by {@code MappedKdTree}
+     *
+     * the nodes are written in preorder, so the left child of node i is node i + 1,
+     * and its right child follows the whole left subtree. deleted nodes are written
+     * as well, with a flag, so that the shape of the tree is kept as it is.
+     *
+     * @param filename the name of the file
+     * @throws IllegalArgumentException if the argument is null
+     * @throws java.io.UncheckedIOException if the file cannot be written
+     */
+    public void save(String filename) {
+        if (filename == null) throw new IllegalArgumentException("argument to save() is null");
+        int nodes = root == null ? 0 : root.count;
+        ByteBuffer buffer = ByteBuffer.allocateDirect(1 << 16).order(ByteOrder.LITTLE_ENDIAN);
+        try (FileChannel channel = FileChannel.open(Paths.get(filename), StandardOpenOption.CREATE,
+                StandardOpenOption.TRUNCATE_EXISTING, StandardOpenOption.WRITE)) {
+            buffer.putInt(MappedKdTree.MAGIC).putInt(MappedKdTree.VERSION).putInt(nodes).putInt(size);
+            while (buffer.position() < MappedKdTree.HEADER) buffer.put((byte) 0);
+
+            Cursor c = acquire();
+            try {
+                write(channel, buffer, c);
+            } finally {
+                release(c);
+            }
+            buffer.flip();
+            while (buffer.hasRemaining()) channel.write(buffer);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    // write the nodes in preorder through the buffer, using the given cursor,
+    // and leave the last ones in the buffer
+    private void write(FileChannel channel, ByteBuffer buffer, Cursor c) throws IOException {
+        c.start(root);
+        for (int i = 0; c.n > 0; i++) {
+            boolean isVertical = c.vertical[c.n - 1];
+            Node r = c.pop();
+            int flags = (isVertical ? MappedKdTree.VERTICAL : 0) | (r.isDeleted ? MappedKdTree.DELETED : 0);
+            buffer.putDouble(r.x).putDouble(r.y)
+                  .putInt(r.left == null ? -1 : i + 1)
+                  .putInt(r.right == null ? -1 : i + 1 + (r.left == null ? 0 : r.left.count))
+                  .putInt(flags).putInt(0);
+            if (buffer.remaining() < MappedKdTree.RECORD) {
+                buffer.flip();
+                while (buffer.hasRemaining()) channel.write(buffer);
+                buffer.clear();
+            }
+            // bounds are not needed here, only the order and the axis
+            c.push(r.right, !isVertical, 0, 0, 1, 1);
+            c.push(r.left, !isVertical, 0, 0, 1, 1);
+        }
     }
 
     /**
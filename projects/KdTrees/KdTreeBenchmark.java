@@ -0,0 +1,316 @@
+/* ******************************************************************************************************
+ *
+ *  Name:               MinJoker
+ *  Date:               19/10/2026
+ *  Libraries:          algs4.jar
+ *  Project source:     https://coursera.cs.princeton.edu/algs4/assignments/kdtree/specification.php
+ *
+ ***************************************************************************************************** */
+
+import edu.princeton.cs.algs4.Out;
+import edu.princeton.cs.algs4.Point2D;
+import edu.princeton.cs.algs4.RectHV;
+import edu.princeton.cs.algs4.StdOut;
+import edu.princeton.cs.algs4.StdRandom;
+import java.lang.management.ManagementFactory;
+import java.util.Arrays;
+import java.util.Locale;
+import java.util.function.Supplier;
+
+/**
+ * the {@code KdTreeBenchmark} class measures the throughput and the allocation rate
+ * of {@code KdTree} and {@code PointSET}, on several distributions of points and sizes of sets.
+ *
+ * some key points as follows:
+ *
+ * 1. distributions:
+ *    "uniform"     points uniform in the unit square, inserted in random order.
+ *    "clustered"   points normal around 10 centers ( standard deviation 0.01 ), in random order.
+ *    "sorted"      uniform points inserted in increasing order, the worst case of a plain 2d-tree.
+ *    "grid"        points on a square grid, in random order, so that many points share
+ *                  a split coordinate.
+ * 2. workloads:
+ *    "insert"      inserts the n points into an empty set.
+ *    "contains"    looks up points, half of them in the set.
+ *    "range s"     reports the points in squares of area s ( the selectivity, as a fraction
+ *                  of the unit square ) centered on points of the set.
+ *    "nearest"     finds the nearest neighbor of points close to points of the set.
+ *    the queries follow the data, so that the clustered points are not only queried
+ *    in empty space, and {@code range()} returns an {@code Iterable}, whose queue is allocated.
+ * 3. sizes go from 1000 points up to the maximum given on the command line, by factors of 10.
+ *    {@code PointSET} answers queries in linear time, so it is only run up to 100000 points.
+ * 4. a timed run of a query workload lasts 50 milliseconds, and a run of "insert" fills a set.
+ *    every workload is run a few times to warm up the JIT, then timed several times,
+ *    and the best run is reported, as the other runs only add noise from the GC and the OS.
+ * 5. allocation per operation is read from {@code com.sun.management.ThreadMXBean},
+ *    the same counter as in {@code QueuesBenchmark}, and the depth of the {@code KdTree}
+ *    after the insertions is reported next to it.
+ * 6. results are printed, and also written as JSON so that runs can be compared over time.
+ *
+ * note that there is no JMH harness in this project, so this is a plain test client.
+ * run it with a fixed heap large enough for the points ( for example {@code -Xms4g -Xmx4g}
+ * for 10 million points ) to get stable numbers.
+ */
+
+public class KdTreeBenchmark {
+    private static final int WARMUP = 3;                // number of warm-up runs of a workload
+    private static final int MEASURE = 5;               // number of timed runs of a workload
+    private static final long RUN_NANOS = 50000000L;    // duration of a timed run of queries
+    private static final int QUERIES = 1 << 12;         // number of distinct queries of each kind
+    private static final int CHUNK = 64;                // queries between two reads of the clock
+    private static final int BRUTE_LIMIT = 100000;      // largest set given to PointSET
+    private static final double[] SELECTIVITIES = { 0.0001, 0.001, 0.01 };
+
+    private static long sink;                           // consumes results so the JIT keeps the work
+
+    // a set of points under test
+    private abstract static class Subject {
+        abstract void insert(Point2D p);
+        abstract boolean contains(Point2D p);
+        abstract Iterable<Point2D> range(RectHV rect);
+        abstract Point2D nearest(Point2D p);
+        abstract int depth();   // depth of the tree, or -1 if it is not a tree
+    }
+
+    // names and factories of the sets under test
+    private static final String[] NAMES = { "KdTree", "PointSET" };
+
+    // factory of the named set
+    private static Supplier<Subject> factory(String name) {
+        switch (name) {
+            case "KdTree": return () -> new Subject() {
+                private final KdTree set = new KdTree();
+                void insert(Point2D p) { set.insert(p); }
+                boolean contains(Point2D p) { return set.contains(p); }
+                Iterable<Point2D> range(RectHV rect) { return set.range(rect); }
+                Point2D nearest(Point2D p) { return set.nearest(p); }
+                int depth() { return set.depthHistogram().length - 1; }
+            };
+            case "PointSET": return () -> new Subject() {
+                private final PointSET set = new PointSET();
+                void insert(Point2D p) { set.insert(p); }
+                boolean contains(Point2D p) { return set.contains(p); }
+                Iterable<Point2D> range(RectHV rect) { return set.range(rect); }
+                Point2D nearest(Point2D p) { return set.nearest(p); }
+                int depth() { return -1; }
+            };
+            default: throw new IllegalArgumentException("unknown set " + name);
+        }
+    }
+
+    // the points of a distribution, and the queries that follow them
+    private static class Data {
+        private final Point2D[] points;     // the points, in insertion order
+        private final Point2D[] probes;     // queries of contains(), every other one is in the set
+        private final Point2D[] targets;    // queries of nearest(), close to points of the set
+        private final RectHV[][] rects;     // queries of range(), for each selectivity
+
+        Data(String distribution, int n) {
+            points = points(distribution, n);
+            probes = new Point2D[QUERIES];
+            targets = new Point2D[QUERIES];
+            rects = new RectHV[SELECTIVITIES.length][QUERIES];
+            double jitter = 1.0 / Math.sqrt(n);     // about the distance between uniform points
+            for (int i = 0; i < QUERIES; i++) {
+                Point2D p = points[StdRandom.uniformInt(n)];
+                // a new point, so that contains() compares coordinates, not references
+                if (i % 2 == 0) probes[i] = new Point2D(p.x(), p.y());
+                else            probes[i] = near(p, jitter);
+                targets[i] = near(points[StdRandom.uniformInt(n)], jitter);
+                Point2D center = points[StdRandom.uniformInt(n)];
+                for (int s = 0; s < SELECTIVITIES.length; s++) {
+                    double half = Math.sqrt(SELECTIVITIES[s]) / 2;
+                    rects[s][i] = new RectHV(Math.max(center.x() - half, 0.0), Math.max(center.y() - half, 0.0),
+                                             Math.min(center.x() + half, 1.0), Math.min(center.y() + half, 1.0));
+                }
+            }
+        }
+    }
+
+    // n points of the named distribution, in insertion order
+    private static Point2D[] points(String distribution, int n) {
+        Point2D[] points = new Point2D[n];
+        switch (distribution) {
+            case "uniform":
+            case "sorted":
+                for (int i = 0; i < n; i++)
+                    points[i] = new Point2D(StdRandom.uniformDouble(), StdRandom.uniformDouble());
+                if (distribution.equals("sorted")) Arrays.sort(points);
+                break;
+            case "clustered":
+                double[][] centers = new double[10][2];
+                for (double[] center : centers) {
+                    center[0] = StdRandom.uniformDouble(0.1, 0.9);
+                    center[1] = StdRandom.uniformDouble(0.1, 0.9);
+                }
+                for (int i = 0; i < n; i++) {
+                    double[] center = centers[StdRandom.uniformInt(centers.length)];
+                    points[i] = new Point2D(clamp(StdRandom.gaussian(center[0], 0.01)),
+                                            clamp(StdRandom.gaussian(center[1], 0.01)));
+                }
+                break;
+            case "grid":
+                int side = (int) Math.ceil(Math.sqrt(n));
+                for (int i = 0; i < n; i++)
+                    points[i] = new Point2D((double) (i % side) / side, (double) (i / side) / side);
+                StdRandom.shuffle(points);
+                break;
+            default: throw new IllegalArgumentException("unknown distribution " + distribution);
+        }
+        return points;
+    }
+
+    // a point normal around p, in the unit square
+    private static Point2D near(Point2D p, double deviation) {
+        return new Point2D(clamp(StdRandom.gaussian(p.x(), deviation)), clamp(StdRandom.gaussian(p.y(), deviation)));
+    }
+
+    // the closest value to v in [0, 1]
+    private static double clamp(double v) {
+        return Math.min(Math.max(v, 0.0), 1.0);
+    }
+
+    // a query workload, run answers the query i and returns something to sink
+    private interface Query {
+        long run(Subject subject, int i);
+    }
+
+    // the query workload of the given name
+    private static Query query(String workload, Data data) {
+        if (workload.equals("contains")) return (subject, i) -> subject.contains(data.probes[i]) ? 1 : 0;
+        if (workload.equals("nearest"))  return (subject, i) -> subject.nearest(data.targets[i]).hashCode();
+        for (int s = 0; s < SELECTIVITIES.length; s++) {
+            if (workload.equals(rangeName(s))) {
+                RectHV[] rects = data.rects[s];
+                return (subject, i) -> {
+                    long count = 0;
+                    for (Point2D p : subject.range(rects[i])) count++;
+                    return count;
+                };
+            }
+        }
+        throw new IllegalArgumentException("unknown workload " + workload);
+    }
+
+    // name of the range workload of the selectivity s
+    private static String rangeName(int s) {
+        return String.format(Locale.ROOT, "range %.2f%%", 100 * SELECTIVITIES[s]);
+    }
+
+    // bytes allocated so far by the current thread, or -1 if unsupported
+    private static long allocatedBytes() {
+        java.lang.management.ThreadMXBean bean = ManagementFactory.getThreadMXBean();
+        if (!(bean instanceof com.sun.management.ThreadMXBean)) return -1;
+        return ((com.sun.management.ThreadMXBean) bean).getThreadAllocatedBytes(Thread.currentThread().getId());
+    }
+
+    // answer queries in turn for RUN_NANOS, return { number of queries, elapsed nanoseconds }
+    private static long[] runQueries(Subject subject, Query query) {
+        long ops = 0;
+        long sum = 0;
+        long start = System.nanoTime();
+        long elapsed;
+        do {
+            for (int j = 0; j < CHUNK; j++) sum += query.run(subject, (int) (ops++ & (QUERIES - 1)));
+            elapsed = System.nanoTime() - start;
+        } while (elapsed < RUN_NANOS);
+        sink += sum;
+        return new long[] { ops, elapsed };
+    }
+
+    // insert the points into a new set, return { number of insertions, elapsed nanoseconds }
+    private static long[] runInsert(Subject subject, Point2D[] points) {
+        long start = System.nanoTime();
+        for (Point2D p : points) subject.insert(p);
+        return new long[] { points.length, System.nanoTime() - start };
+    }
+
+    // run a workload, return { ops/s, bytes/op } of the best run
+    // the set filled by the last run of "insert" is stored in filled[0]
+    private static double[] measure(Supplier<Subject> factory, String workload, Data data, Subject[] filled) {
+        boolean insert = workload.equals("insert");
+        Query query = insert ? null : query(workload, data);
+        double best = 0.0;
+        double bytesPerOp = Double.NaN;
+        for (int i = 0; i < WARMUP + MEASURE; i++) {
+            Subject subject = insert ? factory.get() : filled[0];
+            long bytes = allocatedBytes();
+            long[] run = insert ? runInsert(subject, data.points) : runQueries(subject, query);
+            long allocated = allocatedBytes() - bytes;
+            if (insert) filled[0] = subject;
+            if (i < WARMUP) continue;
+            double opsPerSecond = run[0] * 1e9 / Math.max(run[1], 1);
+            if (opsPerSecond > best) {
+                best = opsPerSecond;
+                if (bytes >= 0) bytesPerOp = (double) allocated / run[0];
+            }
+        }
+        return new double[] { best, bytesPerOp };
+    }
+
+    // format a double for JSON, which has no NaN
+    private static String json(double value) {
+        if (Double.isNaN(value) || Double.isInfinite(value)) return "null";
+        return String.format(Locale.ROOT, "%.3f", value);
+    }
+
+    /**
+     * runs every workload on every set, for every distribution and size, and prints the results
+     *
+     * takes an optional command-line argument {@code max}, the largest number of points
+     * ( default: 1000000 ), and an optional file name, where the JSON results are written
+     * ( default: standard output only ).
+     *
+     * @param args the command-line arguments
+     */
+    public static void main(String[] args) {
+        int max = args.length > 0 ? Integer.parseInt(args[0]) : 1000000;
+        String[] distributions = { "uniform", "clustered", "sorted", "grid" };
+        String[] workloads = new String[SELECTIVITIES.length + 3];
+        workloads[0] = "insert";
+        workloads[1] = "contains";
+        for (int s = 0; s < SELECTIVITIES.length; s++) workloads[s + 2] = rangeName(s);
+        workloads[workloads.length - 1] = "nearest";
+
+        StringBuilder results = new StringBuilder();
+        StdOut.printf("%-10s %9s %-13s %-9s %14s %10s %6s\n",
+                      "points", "n", "workload", "set", "ops/s", "bytes/op", "depth");
+        for (String distribution : distributions) {
+            for (int n = 1000; n <= max; n *= 10) {
+                Data data = new Data(distribution, n);
+                for (String name : NAMES) {
+                    if (name.equals("PointSET") && n > BRUTE_LIMIT) continue;
+                    Subject[] filled = new Subject[1];
+                    for (String workload : workloads) {
+                        double[] r = measure(factory(name), workload, data, filled);
+                        int depth = filled[0].depth();
+                        StdOut.printf("%-10s %9d %-13s %-9s %14.0f %10.2f %6s\n", distribution, n, workload, name,
+                                      r[0], r[1], depth < 0 ? "-" : String.valueOf(depth));
+                        if (results.length() > 0) results.append(",\n");
+                        results.append("    { \"distribution\": \"").append(distribution)
+                               .append("\", \"n\": ").append(n)
+                               .append(", \"workload\": \"").append(workload)
+                               .append("\", \"set\": \"").append(name)
+                               .append("\", \"opsPerSecond\": ").append(json(r[0]))
+                               .append(", \"bytesPerOp\": ").append(json(r[1]))
+                               .append(", \"depth\": ").append(depth < 0 ? "null" : String.valueOf(depth))
+                               .append(" }");
+                    }
+                }
+            }
+        }
+
+        String report = "{\n"
+                      + "  \"java\": \"" + System.getProperty("java.version") + "\",\n"
+                      + "  \"timestamp\": " + System.currentTimeMillis() + ",\n"
+                      + "  \"results\": [\n" + results + "\n  ]\n"
+                      + "}";
+        if (args.length > 1) {
+            Out out = new Out(args[1]);
+            out.println(report);
+            out.close();
+        } else {
+            StdOut.println(report);
+        }
+    }
+}
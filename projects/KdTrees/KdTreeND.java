@@ -0,0 +1,489 @@
+/* ******************************************************************************************************
+ *
+ *  Name:               MinJoker
+ *  Date:               19/10/2026
+ *  Libraries:          algs4.jar
+ *  Project source:     https://coursera.cs.princeton.edu/algs4/assignments/kdtree/specification.php
+ *
+ ***************************************************************************************************** */
+
+import edu.princeton.cs.algs4.Queue;
+import edu.princeton.cs.algs4.StdOut;
+import edu.princeton.cs.algs4.StdRandom;
+import java.util.Arrays;
+import java.util.function.Consumer;
+
+/**
+ * The {@code KdTreeND} class represents a set of points in k-dimensional space, using a k-d tree.
+ *
+ * some key points as follows:
+ *
+ * 1. a point is a {@code double[]} of length k, with any finite coordinates: there is no
+ *    unit square, the rectangle of the root is the whole space. the points are copied into
+ *    one flat array, node i having coordinates {@code coords[i * k .. i * k + k)}, and the
+ *    children {@code left[i]} and {@code right[i]} ( -1 if absent ), as in {@code FlatKdTree}.
+ * 2. each node stores its split dimension. {@code insert()} cycles through the dimensions,
+ *    as {@code KdTree} alternates between x and y. {@code build()} splits each subtree
+ *    at the median of the dimension along which its points are the most spread out,
+ *    which suits features of different scales better.
+ * 3. the points whose coordinate is less than the split go to the left subtree,
+ *    and the others ( ties included ) go to the right subtree.
+ * 4. the pruning is the same as in {@code KdTree}: range search skips a subtree whose box
+ *    is on the wrong side of the split, and nearest neighbor search skips a subtree whose box
+ *    is no closer than the nearest point so far. the box of a node is not stored, it is
+ *    tracked during the descent, 2k bounds per entry of the traversal stack.
+ * 5. every query allocates its own traversal stack, so several threads can query
+ *    a {@code KdTreeND} at once, but it must not be modified during a query.
+ *
+ * more details can be found in the project source:
+ * https://coursera.cs.princeton.edu/algs4/assignments/kdtree/specification.php
+ */
+
+public class KdTreeND {
+    // initial capacity of the underlying arrays
+    private static final int INIT_CAPACITY = 16;
+
+    private final int k;        // number of dimensions
+    private double[] coords;    // coordinates of the points, k per node
+    private int[] axis;         // split dimension of each node
+    private int[] left;         // index of the left child, -1 if none
+    private int[] right;        // index of the right child, -1 if none
+    private int size;           // number of points, node 0 is the root
+
+    // an explicit stack of nodes and their boxes, one per query
+    private static class Stack {
+        private int[] nodes = new int[64];  // the nodes
+        private double[] boxes;             // the box of each node: k lower bounds, then k upper bounds
+
+        Stack(int k) {
+            boxes = new double[64 * 2 * k];
+        }
+    }
+
+    /**
+     * construct an empty set of k-dimensional points
+     *
+     * @param dimension the number of dimensions k
+     * @throws IllegalArgumentException if {@code dimension < 1}
+     */
+    public KdTreeND(int dimension) {
+        if (dimension < 1) throw new IllegalArgumentException("dimension must be positive");
+        k = dimension;
+        coords = new double[INIT_CAPACITY * k];
+        axis = new int[INIT_CAPACITY];
+        left = new int[INIT_CAPACITY];
+        right = new int[INIT_CAPACITY];
+        size = 0;
+    }
+
+    /**
+     * is the set empty?
+     *
+     * @return true if the set is empty, false otherwise
+     */
+    public boolean isEmpty() {
+        return size == 0;
+    }
+
+    /**
+     * number of points in the set
+     *
+     * @return the number of points in the set
+     */
+    public int size() {
+        return size;
+    }
+
+    /**
+     * number of dimensions of the points
+     *
+     * @return the number of dimensions k
+     */
+    public int dimension() {
+        return k;
+    }
+
+    // check that p is a point with k finite coordinates
+    private void check(double[] p, String method) {
+        if (p == null) throw new IllegalArgumentException("argument to " + method + "() is null");
+        if (p.length != k) throw new IllegalArgumentException("point of " + method + "() is not " + k + "-dimensional");
+        for (double c : p) {
+            if (Double.isNaN(c) || Double.isInfinite(c))
+                throw new IllegalArgumentException("coordinates must be finite");
+        }
+    }
+
+    // append a new leaf node with the coordinates of p and return its index
+    private int newNode(double[] p, int dimension) {
+        if (size == axis.length) {
+            int capacity = 2 * size;
+            coords = Arrays.copyOf(coords, capacity * k);
+            axis = Arrays.copyOf(axis, capacity);
+            left = Arrays.copyOf(left, capacity);
+            right = Arrays.copyOf(right, capacity);
+        }
+        System.arraycopy(p, 0, coords, size * k, k);
+        axis[size] = dimension;
+        left[size] = -1;
+        right[size] = -1;
+        return size++;
+    }
+
+    // does node r have the coordinates of p?
+    private boolean equals(int r, double[] p) {
+        int base = r * k;
+        for (int d = 0; d < k; d++) {
+            if (coords[base + d] != p[d]) return false;
+        }
+        return true;
+    }
+
+    // a copy of the coordinates of node r
+    private double[] point(int r) {
+        return Arrays.copyOfRange(coords, r * k, r * k + k);
+    }
+
+    /**
+     * add the point to the set (if it is not already in the set)
+     *
+     * @param p the point to add, it is copied
+     * @throws IllegalArgumentException if {@code p} is null, not k-dimensional,
+     *         or has a coordinate that is not finite
+     */
+    public void insert(double[] p) {
+        check(p, "insert");
+        if (size == 0) {
+            newNode(p, 0);
+            return;
+        }
+        int r = 0;
+        while (true) {
+            if (equals(r, p)) return;
+            boolean goLeft = p[axis[r]] < coords[r * k + axis[r]];
+            int child = goLeft ? left[r] : right[r];
+            if (child == -1) {
+                int node = newNode(p, (axis[r] + 1) % k);
+                if (goLeft) left[r] = node;
+                else        right[r] = node;
+                return;
+            }
+            r = child;
+        }
+    }
+
+    /**
+     * does the set contain point p?
+     *
+     * @param p the point to check
+     * @return true if the set contains p, false otherwise
+     * @throws IllegalArgumentException if {@code p} is null, not k-dimensional,
+     *         or has a coordinate that is not finite
+     */
+    public boolean contains(double[] p) {
+        check(p, "contains");
+        int r = size == 0 ? -1 : 0;
+        while (r != -1) {
+            if (equals(r, p)) return true;
+            r = p[axis[r]] < coords[r * k + axis[r]] ? left[r] : right[r];
+        }
+        return false;
+    }
+
+    /**
+     * build a balanced KdTreeND from the given points, splitting each subtree
+     * along the dimension with the largest spread
+     *
+     * @param dimension the number of dimensions k
+     * @param points the points, duplicates are ignored
+     * @return a balanced KdTreeND of the points
+     * @throws IllegalArgumentException if {@code points} is null, or if a point is null,
+     *         not k-dimensional, or has a coordinate that is not finite
+     */
+    public static KdTreeND build(int dimension, double[][] points) {
+        if (points == null) throw new IllegalArgumentException("argument to build() is null");
+        KdTreeND tree = new KdTreeND(dimension);
+        double[][] a = points.clone();
+        for (double[] p : a) tree.check(p, "build");
+
+        // remove duplicates, equal as insert() sees them
+        Arrays.sort(a, KdTreeND::compare);
+        int n = 0;
+        for (int i = 0; i < a.length; i++)
+            if (n == 0 || compare(a[i], a[n - 1]) != 0) a[n++] = a[i];
+
+        int capacity = Math.max(n, INIT_CAPACITY);
+        tree.coords = new double[capacity * dimension];
+        tree.axis = new int[capacity];
+        tree.left = new int[capacity];
+        tree.right = new int[capacity];
+        tree.build(a, 0, n);
+        return tree;
+    }
+
+    // compare two points coordinate by coordinate with < and >, so that 0.0 and -0.0 are equal,
+    // as they are in insert() and contains() ( Arrays.compare() tells them apart )
+    private static int compare(double[] p, double[] q) {
+        for (int d = 0; d < p.length; d++) {
+            if (p[d] < q[d]) return -1;
+            if (p[d] > q[d]) return +1;
+        }
+        return 0;
+    }
+
+    // build a balanced subtree of a[lo, hi), its nodes are appended in preorder
+    private int build(double[][] a, int lo, int hi) {
+        if (lo >= hi) return -1;
+
+        // the dimension with the largest spread
+        int dimension = 0;
+        double widest = -1.0;
+        for (int d = 0; d < k; d++) {
+            double min = Double.POSITIVE_INFINITY, max = Double.NEGATIVE_INFINITY;
+            for (int i = lo; i < hi; i++) {
+                min = Math.min(min, a[i][d]);
+                max = Math.max(max, a[i][d]);
+            }
+            if (max - min > widest) {
+                widest = max - min;
+                dimension = d;
+            }
+        }
+
+        int mid = partition(a, lo, hi, dimension);
+        int node = newNode(a[mid], dimension);
+        int leftChild = build(a, lo, mid);
+        int rightChild = build(a, mid + 1, hi);
+        left[node] = leftChild;
+        right[node] = rightChild;
+        return node;
+    }
+
+    // put the median of a[lo, hi) along the dimension at some index m and return m, so that
+    // every point in a[lo, m) has a smaller coordinate, and every point in a(m, hi) has one no smaller
+    private static int partition(double[][] a, int lo, int hi, int dimension) {
+        int m = lo + (hi - lo) / 2;
+        select(a, lo, hi - 1, m, dimension);
+        double median = a[m][dimension];
+
+        // points equal to the median may have ended up on the left, move them next to it
+        int j = lo;
+        for (int i = lo; i < m; i++) {
+            if (a[i][dimension] < median) swap(a, i, j++);
+        }
+        swap(a, m, j);
+        return j;
+    }
+
+    // rearrange a[lo..hi] so that a[m] has the m-th smallest coordinate ( quickselect )
+    private static void select(double[][] a, int lo, int hi, int m, int dimension) {
+        while (lo < hi) {
+            // 3-way partition around a random pivot, as in KdTree
+            double pivot = a[lo + StdRandom.uniformInt(hi - lo + 1)][dimension];
+            int lt = lo, gt = hi, i = lo;
+            while (i <= gt) {
+                double c = a[i][dimension];
+                if      (c < pivot) swap(a, lt++, i++);
+                else if (c > pivot) swap(a, i, gt--);
+                else                i++;
+            }
+            if      (m < lt) hi = lt - 1;
+            else if (m > gt) lo = gt + 1;
+            else             return;
+        }
+    }
+
+    // exchange a[i] and a[j]
+    private static void swap(double[][] a, int i, int j) {
+        double[] swap = a[i];
+        a[i] = a[j];
+        a[j] = swap;
+    }
+
+    // push node r onto the stack, with the box at boxes[from .. from + 2k), return the new top
+    private int push(Stack stack, int n, int r, int from) {
+        if (r == -1) return n;
+        if (n == stack.nodes.length) {
+            stack.nodes = Arrays.copyOf(stack.nodes, 2 * n);
+            stack.boxes = Arrays.copyOf(stack.boxes, 2 * n * 2 * k);
+        }
+        stack.nodes[n] = r;
+        if (from != n * 2 * k) System.arraycopy(stack.boxes, from, stack.boxes, n * 2 * k, 2 * k);
+        return n + 1;
+    }
+
+    /**
+     * all points that are inside the box (or on the boundary)
+     *
+     * @param lo the lower corner of the box
+     * @param hi the upper corner of the box
+     * @return copies of all points that are inside the box (or on the boundary)
+     * @throws IllegalArgumentException if a corner is null or not k-dimensional
+     */
+    public Iterable<double[]> range(double[] lo, double[] hi) {
+        Queue<double[]> queue = new Queue<double[]>();
+        range(lo, hi, queue::enqueue);
+        return queue;
+    }
+
+    /**
+     * pass a copy of every point that is inside the box (or on the boundary) to the action
+     *
+     * the action may query this tree, but it must not modify it.
+     *
+     * @param lo the lower corner of the box
+     * @param hi the upper corner of the box
+     * @param action the action to perform on each point
+     * @throws IllegalArgumentException if any argument is null, or a corner is not k-dimensional
+     */
+    public void range(double[] lo, double[] hi, Consumer<? super double[]> action) {
+        if (lo == null || hi == null) throw new IllegalArgumentException("argument to range() is null");
+        if (lo.length != k || hi.length != k) throw new IllegalArgumentException("box of range() is not " + k + "-dimensional");
+        if (action == null) throw new IllegalArgumentException("action of range() is null");
+        // the boxes are not needed here, only the splits
+        Stack stack = new Stack(k);
+        int n = size == 0 ? 0 : push(stack, 0, 0, 0);
+        while (n > 0) {
+            int r = stack.nodes[--n];
+            int base = r * k;
+            boolean inside = true;
+            for (int d = 0; d < k && inside; d++) {
+                inside = coords[base + d] >= lo[d] && coords[base + d] <= hi[d];
+            }
+            if (inside) action.accept(point(r));
+
+            // the left subtree holds the points before the split, the right one the others
+            int d = axis[r];
+            double split = coords[base + d];
+            if (hi[d] >= split) n = push(stack, n, right[r], n * 2 * k);
+            if (lo[d] <= split) n = push(stack, n, left[r], n * 2 * k);
+        }
+    }
+
+    /**
+     * a nearest neighbor in the set to point p; null if the set is empty
+     *
+     * @param p the point to check
+     * @return a copy of a nearest neighbor in the set to point p; null if the set is empty
+     * @throws IllegalArgumentException if {@code p} is null, not k-dimensional,
+     *         or has a coordinate that is not finite
+     */
+    public double[] nearest(double[] p) {
+        check(p, "nearest");
+        if (isEmpty()) return null;
+        int best = -1;
+        double bestDistance = Double.POSITIVE_INFINITY;
+
+        // the box of the root is the whole space
+        Stack stack = new Stack(k);
+        double[] boxes = stack.boxes;
+        Arrays.fill(boxes, 0, k, Double.NEGATIVE_INFINITY);
+        Arrays.fill(boxes, k, 2 * k, Double.POSITIVE_INFINITY);
+        int n = push(stack, 0, 0, 0);
+        while (n > 0) {
+            int r = stack.nodes[--n];
+            int box = n * 2 * k;
+            // there is no need to search a node (or its subtrees) if
+            // the nearest distance so far is closer than the distance between
+            // the query point and the box corresponding to the node
+            double boxDistance = 0.0;
+            for (int d = 0; d < k; d++) {
+                double c = p[d];
+                double delta = c < boxes[box + d] ? boxes[box + d] - c
+                             : (c > boxes[box + k + d] ? c - boxes[box + k + d] : 0.0);
+                boxDistance += delta * delta;
+            }
+            if (boxDistance >= bestDistance) continue;
+
+            int base = r * k;
+            double distance = 0.0;
+            for (int d = 0; d < k; d++) {
+                double delta = coords[base + d] - p[d];
+                distance += delta * delta;
+            }
+            if (distance < bestDistance) {
+                best = r;
+                bestDistance = distance;
+            }
+
+            // the boxes of the children: the left one ends at the split, the right one starts at it
+            // search the subtree on the same side as the query point first, so push it last
+            int d = axis[r];
+            double split = coords[base + d];
+            boolean leftFirst = p[d] < split;
+            int first = leftFirst ? left[r] : right[r];
+            int second = leftFirst ? right[r] : left[r];
+            // the second child reuses the entry of r, so the first one copies the box before it changes
+            int top = second == -1 ? n : n + 1;
+            if (first != -1) {
+                top = push(stack, top, first, box);
+                boxes = stack.boxes;    // the push may have grown them
+                boxes[(top - 1) * 2 * k + (leftFirst ? k + d : d)] = split;
+            }
+            if (second != -1) {
+                stack.nodes[n] = second;
+                boxes[box + (leftFirst ? d : k + d)] = split;
+            }
+            n = top;
+        }
+        return point(best);
+    }
+
+    /**
+     * unit testing of the methods
+     *
+     * inserts n random points ( default: 100000 ) in k dimensions ( default: 4 ),
+     * with a different scale in each dimension, into a {@code KdTreeND} and builds another one
+     * from them, then checks both against a linear scan for random queries.
+     *
+     * @param args the command-line arguments
+     */
+    public static void main(String[] args) {
+        int n = args.length > 0 ? Integer.parseInt(args[0]) : 100000;
+        int k = args.length > 1 ? Integer.parseInt(args[1]) : 4;
+        double[][] points = new double[n][k];
+        for (int i = 0; i < n; i++)
+            for (int d = 0; d < k; d++) points[i][d] = StdRandom.uniformDouble(-1.0, 1.0) * (d + 1);
+
+        KdTreeND inserted = new KdTreeND(k);
+        for (double[] p : points) inserted.insert(p);
+        KdTreeND built = KdTreeND.build(k, points);
+        StdOut.println("size: " + inserted.size() + " ( built: " + built.size() + " )");
+
+        int mismatches = 0;
+        for (int t = 0; t < 200; t++) {
+            double[] q = new double[k];
+            double[] lo = new double[k];
+            double[] hi = new double[k];
+            for (int d = 0; d < k; d++) {
+                q[d] = StdRandom.uniformDouble(-1.5, 1.5) * (d + 1);
+                lo[d] = q[d] - 0.5 * (d + 1);
+                hi[d] = q[d] + 0.5 * (d + 1);
+            }
+            if (!inserted.contains(points[t % n]) || !built.contains(points[t % n])) mismatches++;
+            if (inserted.contains(q) || built.contains(q)) mismatches++;
+
+            double bestDistance = Double.POSITIVE_INFINITY;
+            int count = 0;
+            for (double[] p : points) {
+                double distance = 0.0;
+                boolean inside = true;
+                for (int d = 0; d < k; d++) {
+                    distance += (p[d] - q[d]) * (p[d] - q[d]);
+                    inside &= p[d] >= lo[d] && p[d] <= hi[d];
+                }
+                bestDistance = Math.min(bestDistance, distance);
+                if (inside) count++;
+            }
+            for (KdTreeND tree : new KdTreeND[] { inserted, built }) {
+                double[] nearest = tree.nearest(q);
+                double distance = 0.0;
+                for (int d = 0; d < k; d++) distance += (nearest[d] - q[d]) * (nearest[d] - q[d]);
+                if (distance != bestDistance) mismatches++;
+                int found = 0;
+                for (double[] p : tree.range(lo, hi)) found++;
+                if (found != count) mismatches++;
+            }
+        }
+        StdOut.println("mismatches: " + mismatches);
+    }
+}
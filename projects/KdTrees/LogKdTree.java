@@ -0,0 +1,315 @@
+/* ******************************************************************************************************
+ *
+ *  Name:               MinJoker
+ *  Date:               19/10/2026
+ *  Libraries:          algs4.jar
+ *  Project source:     https://coursera.cs.princeton.edu/algs4/assignments/kdtree/specification.php
+ *
+ ***************************************************************************************************** */
+
+import edu.princeton.cs.algs4.Point2D;
+import edu.princeton.cs.algs4.RectHV;
+import edu.princeton.cs.algs4.Queue;
+import edu.princeton.cs.algs4.StdOut;
+import edu.princeton.cs.algs4.StdRandom;
+import java.util.Arrays;
+import java.util.function.Consumer;
+
+/**
+ * The {@code LogKdTree} class represents a set of points in the unit square, using a forest of
+ * static, perfectly balanced {@code KdTree}s ( the logarithmic method of Bentley and Saxe ).
+ *
+ * some key points as follows:
+ *
+ * 1. level i of the forest is either empty or a {@code KdTree} made by {@code build()}
+ *    with exactly 2^i points, so the levels in use are the 1 bits of the size,
+ *    and there are at most lg n + 1 of them.
+ * 2. {@code insert()} works like adding 1 to a binary counter: the new point and the points of
+ *    the full levels 0, 1, ..., j - 1 ( 2^j points in all ) are built into a tree at level j,
+ *    the first empty one, and the lower levels are emptied. a point takes part in at most
+ *    lg n builds, and a build of m points takes O(m log m) time, so an insertion takes
+ *    O(log^2 n) amortized time, whatever the order of the points, and no tree ever degrades.
+ *    merging the levels as lists sorted by x and by y would not make it O(log n): a balanced
+ *    build still splits the lists at each of its lg m depths, which is O(m log m) in all.
+ *    the levels of at least 2^16 points are built in parallel.
+ * 3. the queries fan out over the levels: {@code contains()} and {@code nearest()} take
+ *    O(log^2 n) time, {@code range()} and {@code countRange()} take the sum of their costs
+ *    on O(log n) balanced trees.
+ * 4. the points of a level arrived about together, so when they arrive in a skewed order, each
+ *    level covers a narrow band of the square. the bounding box of each level is kept, and
+ *    {@code nearest()} searches the levels from the closest box on, skips the levels whose box
+ *    is farther than the nearest point so far, and gives that distance to the next tree as a bound.
+ * so it trades a little query time for insertions that never go through a long path,
+ * nor trigger a rebuild of the whole set, as the largest build only happens once every n insertions.
+ * points cannot be deleted. the queries only read the trees, so several threads can query
+ * a {@code LogKdTree} at once, but it must not be modified during a query.
+ *
+ * more details can be found in the project source:
+ * https://coursera.cs.princeton.edu/algs4/assignments/kdtree/specification.php
+ */
+
+public class LogKdTree {
+    // levels of at least this many points are built in parallel
+    private static final int PARALLEL_THRESHOLD = 1 << 16;
+
+    private final KdTree[] trees;       // trees[i] holds 2^i points, or is null
+    private final Point2D[][] points;   // points[i] are the points of trees[i], to merge them later
+    private final double[] boxes;       // xmin, ymin, xmax, ymax of the points of each level
+    private int size;                   // number of points
+
+    /**
+     * construct an empty set of points
+     */
+    public LogKdTree() {
+        trees = new KdTree[32];
+        points = new Point2D[32][];
+        boxes = new double[4 * 32];
+        size = 0;
+    }
+
+    /**
+     * is the set empty?
+     *
+     * @return true if the set is empty, false otherwise
+     */
+    public boolean isEmpty() {
+        return size == 0;
+    }
+
+    /**
+     * number of points in the set
+     *
+     * @return the number of points in the set
+     */
+    public int size() {
+        return size;
+    }
+
+    /**
+     * number of levels in use, that is, the number of trees in the forest
+     *
+     * @return the number of trees in the forest
+     */
+    public int levels() {
+        return Integer.bitCount(size);
+    }
+
+    /**
+     * add the point to the set (if it is not already in the set)
+     *
+     * @param p the point to add
+     * @throws IllegalArgumentException if the argument is null
+     */
+    public void insert(Point2D p) {
+        if (p == null) throw new IllegalArgumentException("argument to insert() is null");
+        if (contains(p)) return;
+
+        // the levels below the first empty one are full, merge them with p into it
+        // ( the levels in use are the 1 bits of size, so this is its lowest 0 bit )
+        int j = Integer.numberOfTrailingZeros(~size);
+        Point2D[] merged = new Point2D[1 << j];
+        merged[0] = p;
+        double xmin = p.x(), ymin = p.y(), xmax = p.x(), ymax = p.y();
+        int n = 1;
+        for (int i = 0; i < j; i++) {
+            System.arraycopy(points[i], 0, merged, n, points[i].length);
+            n += points[i].length;
+            xmin = Math.min(xmin, boxes[4 * i]);
+            ymin = Math.min(ymin, boxes[4 * i + 1]);
+            xmax = Math.max(xmax, boxes[4 * i + 2]);
+            ymax = Math.max(ymax, boxes[4 * i + 3]);
+            trees[i] = null;
+            points[i] = null;
+        }
+        trees[j] = KdTree.build(merged, merged.length >= PARALLEL_THRESHOLD);
+        points[j] = merged;
+        boxes[4 * j] = xmin;
+        boxes[4 * j + 1] = ymin;
+        boxes[4 * j + 2] = xmax;
+        boxes[4 * j + 3] = ymax;
+        size++;
+    }
+
+    /**
+     * does the set contain point p?
+     *
+     * @param p the point to check
+     * @return true if the set contains p, false otherwise
+     * @throws IllegalArgumentException if the argument is null
+     */
+    public boolean contains(Point2D p) {
+        if (p == null) throw new IllegalArgumentException("argument to contains() is null");
+        for (KdTree tree : trees) {
+            if (tree != null && tree.contains(p)) return true;
+        }
+        return false;
+    }
+
+    /**
+     * draw all points to standard draw
+     */
+    public void draw() {
+        for (Point2D[] level : points) {
+            if (level == null) continue;
+            for (Point2D p : level) p.draw();
+        }
+    }
+
+    /**
+     * all points that are inside the rectangle (or on the boundary)
+     *
+     * @param rect the rectangle
+     * @return all points that are inside the rectangle (or on the boundary)
+     * @throws IllegalArgumentException if the argument is null
+     */
+    public Iterable<Point2D> range(RectHV rect) {
+        if (rect == null) throw new IllegalArgumentException("argument to range() is null");
+        Queue<Point2D> queue = new Queue<Point2D>();
+        range(rect, queue::enqueue);
+        return queue;
+    }
+
+    /**
+     * pass every point that is inside the rectangle (or on the boundary) to the action
+     *
+     * the action may query this LogKdTree, but it must not modify it.
+     *
+     * @param rect the rectangle
+     * @param action the action to perform on each point
+     * @throws IllegalArgumentException if any argument is null
+     */
+    public void range(RectHV rect, Consumer<? super Point2D> action) {
+        if (rect == null) throw new IllegalArgumentException("argument to range() is null");
+        if (action == null) throw new IllegalArgumentException("action of range() is null");
+        for (KdTree tree : trees) {
+            if (tree != null) tree.range(rect, action);
+        }
+    }
+
+    /**
+     * number of points that are inside the rectangle (or on the boundary)
+     *
+     * @param rect the rectangle
+     * @return the number of points inside the rectangle (or on the boundary)
+     * @throws IllegalArgumentException if the argument is null
+     */
+    public int countRange(RectHV rect) {
+        if (rect == null) throw new IllegalArgumentException("argument to countRange() is null");
+        int count = 0;
+        for (KdTree tree : trees) {
+            if (tree != null) count += tree.countRange(rect);
+        }
+        return count;
+    }
+
+    /**
+     * a nearest neighbor in the set to point p; null if the set is empty
+     *
+     * @param p the point to check
+     * @return a nearest neighbor in the set to point p; null if the set is empty
+     * @throws IllegalArgumentException if the argument is null
+     */
+    public Point2D nearest(Point2D p) {
+        if (p == null) throw new IllegalArgumentException("argument to nearest() is null");
+        double px = p.x();
+        double py = p.y();
+
+        // the squared distance from p to the box of each level in use, packed with the level
+        // in a long, so that sorting the keys sorts the levels by distance
+        // ( non-negative doubles compare as their bits do )
+        long[] order = new long[levels()];
+        int n = 0;
+        for (int i = 0; i < trees.length; i++) {
+            if (trees[i] == null) continue;
+            double dx = Math.max(Math.max(boxes[4 * i] - px, px - boxes[4 * i + 2]), 0.0);
+            double dy = Math.max(Math.max(boxes[4 * i + 1] - py, py - boxes[4 * i + 3]), 0.0);
+            order[n++] = (Double.doubleToLongBits(dx * dx + dy * dy) & ~31L) | i;
+        }
+        Arrays.sort(order);
+
+        Point2D best = null;
+        double bestDistance = Double.POSITIVE_INFINITY;
+        for (long key : order) {
+            int i = (int) (key & 31);
+            // the box distance lost its 5 lowest bits, so it is a lower bound
+            if (Double.longBitsToDouble(key & ~31L) >= bestDistance) break;
+            Point2D candidate = trees[i].nearestWithin(p, bestDistance);
+            if (candidate != null) {
+                best = candidate;
+                bestDistance = p.distanceSquaredTo(candidate);
+            }
+        }
+        return best;
+    }
+
+    /**
+     * unit testing of the methods
+     *
+     * inserts n points ( default: 1000000 ) sorted by y-coordinate, the skewed order that
+     * makes a plain 2d-tree degenerate, into both a {@code LogKdTree} and a {@code KdTree},
+     * and prints the insertion rates, then checks that both agree on {@code contains()},
+     * {@code range()}, {@code countRange()} and {@code nearest()}, and times the queries of both.
+     *
+     * @param args the command-line arguments
+     */
+    public static void main(String[] args) {
+        int n = args.length > 0 ? Integer.parseInt(args[0]) : 1000000;
+        Point2D[] points = new Point2D[n];
+        for (int i = 0; i < n; i++)
+            points[i] = new Point2D(StdRandom.uniformDouble(), StdRandom.uniformDouble());
+        Arrays.sort(points);
+
+        LogKdTree forest = new LogKdTree();
+        long start = System.nanoTime();
+        for (Point2D p : points) forest.insert(p);
+        double forestTime = (System.nanoTime() - start) / 1e9;
+        KdTree tree = new KdTree();
+        start = System.nanoTime();
+        for (Point2D p : points) tree.insert(p);
+        double treeTime = (System.nanoTime() - start) / 1e9;
+        forest.insert(points[0]);
+        StdOut.printf("size: %d ( KdTree: %d ), levels: %d\n", forest.size(), tree.size(), forest.levels());
+        StdOut.printf("insert: %.0f points/s ( KdTree: %.0f points/s )\n", n / forestTime, n / treeTime);
+
+        int queries = 10000;
+        Point2D[] targets = new Point2D[queries];
+        RectHV[] rects = new RectHV[queries];
+        for (int i = 0; i < queries; i++) {
+            targets[i] = new Point2D(StdRandom.uniformDouble(), StdRandom.uniformDouble());
+            double x = StdRandom.uniformDouble(0.0, 0.99);
+            double y = StdRandom.uniformDouble(0.0, 0.99);
+            rects[i] = new RectHV(x, y, x + 0.01, y + 0.01);
+        }
+        int mismatches = 0;
+        for (int i = 0; i < queries; i++) {
+            if (forest.contains(points[i % n]) != tree.contains(points[i % n])) mismatches++;
+            if (forest.contains(targets[i]) != tree.contains(targets[i])) mismatches++;
+            if (targets[i].distanceSquaredTo(forest.nearest(targets[i]))
+                != targets[i].distanceSquaredTo(tree.nearest(targets[i]))) mismatches++;
+            int[] count = new int[1];
+            forest.range(rects[i], q -> count[0]++);
+            if (count[0] != tree.countRange(rects[i]) || count[0] != forest.countRange(rects[i])) mismatches++;
+        }
+        StdOut.println("mismatches: " + mismatches);
+
+        long sink = 0;
+        double[] times = new double[4];
+        for (int round = 0; round < 5; round++) {   // the first rounds warm up the JIT
+            start = System.nanoTime();
+            for (Point2D target : targets) sink += forest.nearest(target).hashCode();
+            times[0] = (System.nanoTime() - start) / (double) queries;
+            start = System.nanoTime();
+            for (Point2D target : targets) sink += tree.nearest(target).hashCode();
+            times[1] = (System.nanoTime() - start) / (double) queries;
+            start = System.nanoTime();
+            for (RectHV rect : rects) sink += forest.countRange(rect);
+            times[2] = (System.nanoTime() - start) / (double) queries;
+            start = System.nanoTime();
+            for (RectHV rect : rects) sink += tree.countRange(rect);
+            times[3] = (System.nanoTime() - start) / (double) queries;
+        }
+        StdOut.printf("nearest: %.0f ns ( KdTree: %.0f ns ), countRange: %.0f ns ( KdTree: %.0f ns )\n",
+                      times[0], times[1], times[2], times[3]);
+        if (sink == 42) StdOut.println();   // keeps the results alive
+    }
+}
@@ -0,0 +1,329 @@
+/* ******************************************************************************************************
+ *
+ *  Name:               MinJoker
+ *  Date:               19/10/2026
+ *  Libraries:          algs4.jar
+ *  Project source:     https://coursera.cs.princeton.edu/algs4/assignments/kdtree/specification.php
+ *
+ ***************************************************************************************************** */
+
+import edu.princeton.cs.algs4.Point2D;
+import edu.princeton.cs.algs4.RectHV;
+import edu.princeton.cs.algs4.Queue;
+import edu.princeton.cs.algs4.StdOut;
+import edu.princeton.cs.algs4.StdRandom;
+import edu.princeton.cs.algs4.Stopwatch;
+import java.io.File;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.channels.FileChannel;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
+import java.util.Arrays;
+import java.util.function.Consumer;
+
+/**
+ * The {@code MappedKdTree} class represents a read-only set of points in the unit square,
+ * using a 2d-tree saved by {@code KdTree.save()} and queried directly from the file.
+ *
+ * some key points as follows:
+ *
+ * 1. the file starts with a header of 32 bytes: the magic number, the version,
+ *    the number of nodes and the number of points, as little-endian ints.
+ * 2. then comes one record of 32 bytes per node, in preorder, so the root is node 0:
+ *    x ( double ), y ( double ), left child ( int, -1 if none ), right child ( int, -1 if none ),
+ *    flags ( int: the split axis, and whether the point is deleted ) and 4 unused bytes.
+ * 3. the file is memory-mapped, not read: opening it costs a few system calls whatever its size,
+ *    and the pages are loaded on demand from the page cache, which is shared by all the processes
+ *    that map the same file. a {@code MappedByteBuffer} is limited to 2^31 bytes, so the records
+ *    are mapped in segments of 2^25 records, and node i is found at record {@code i & MASK}
+ *    of segment {@code i >>> SHIFT}.
+ * 4. the buffers are only read with absolute gets, and every query uses its own stack,
+ *    so a {@code MappedKdTree} can be queried by several threads at once.
+ *
+ * more details can be found in the project source:
+ * https://coursera.cs.princeton.edu/algs4/assignments/kdtree/specification.php
+ */
+
+public class MappedKdTree {
+    // the format, shared with KdTree.save()
+    static final int MAGIC = 0x4b445452;    // "KDTR"
+    static final int VERSION = 1;
+    static final int HEADER = 32;           // bytes in the header
+    static final int RECORD = 32;           // bytes in a node record
+    static final int VERTICAL = 1;          // flag of a node split by x
+    static final int DELETED = 2;           // flag of a deleted node
+
+    private static final int SHIFT = 25;                // log2 of the records per segment
+    private static final int MASK = (1 << SHIFT) - 1;
+
+    private final ByteBuffer[] segments;    // the mapped records
+    private final int nodes;                // number of nodes, deleted ones included
+    private final int size;                 // number of points
+
+    /**
+     * open a KdTree saved by {@code KdTree.save()}
+     *
+     * @param filename the name of the file
+     * @throws IllegalArgumentException if the argument is null or the file is not a saved KdTree
+     * @throws java.io.UncheckedIOException if the file cannot be read
+     */
+    public MappedKdTree(String filename) {
+        if (filename == null) throw new IllegalArgumentException("argument to constructor is null");
+        try (FileChannel channel = FileChannel.open(Paths.get(filename), StandardOpenOption.READ)) {
+            ByteBuffer header = channel.map(FileChannel.MapMode.READ_ONLY, 0, HEADER).order(ByteOrder.LITTLE_ENDIAN);
+            if (header.getInt(0) != MAGIC || header.getInt(4) != VERSION)
+                throw new IllegalArgumentException(filename + " is not a saved KdTree");
+            nodes = header.getInt(8);
+            size = header.getInt(12);
+            if (channel.size() != HEADER + (long) nodes * RECORD)
+                throw new IllegalArgumentException(filename + " is truncated");
+
+            // the mapping stays valid after the channel is closed
+            segments = new ByteBuffer[(nodes + MASK) >>> SHIFT];
+            for (int s = 0; s < segments.length; s++) {
+                long first = (long) s << SHIFT;
+                long records = Math.min(1L << SHIFT, nodes - first);
+                segments[s] = channel.map(FileChannel.MapMode.READ_ONLY, HEADER + first * RECORD, records * RECORD)
+                                     .order(ByteOrder.LITTLE_ENDIAN);
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    // fields of node i
+    private double x(int i) {
+        return segments[i >>> SHIFT].getDouble((i & MASK) * RECORD);
+    }
+
+    private double y(int i) {
+        return segments[i >>> SHIFT].getDouble((i & MASK) * RECORD + 8);
+    }
+
+    private int left(int i) {
+        return segments[i >>> SHIFT].getInt((i & MASK) * RECORD + 16);
+    }
+
+    private int right(int i) {
+        return segments[i >>> SHIFT].getInt((i & MASK) * RECORD + 20);
+    }
+
+    private int flags(int i) {
+        return segments[i >>> SHIFT].getInt((i & MASK) * RECORD + 24);
+    }
+
+    /**
+     * is the set empty?
+     *
+     * @return true if the set is empty, false otherwise
+     */
+    public boolean isEmpty() {
+        return size == 0;
+    }
+
+    /**
+     * number of points in the set
+     *
+     * @return the number of points in the set
+     */
+    public int size() {
+        return size;
+    }
+
+    /**
+     * does the set contain point p?
+     *
+     * @param p the point to check
+     * @return true if the set contains p, false otherwise
+     * @throws IllegalArgumentException if the argument is null
+     */
+    public boolean contains(Point2D p) {
+        if (p == null) throw new IllegalArgumentException("argument to contains() is null");
+        double x = p.x();
+        double y = p.y();
+        int r = nodes == 0 ? -1 : 0;
+        while (r != -1) {
+            double rx = x(r);
+            double ry = y(r);
+            int flags = flags(r);
+            if (rx == x && ry == y) return (flags & DELETED) == 0;
+            if ((flags & VERTICAL) != 0) r = x < rx ? left(r) : right(r);
+            else                         r = y < ry ? left(r) : right(r);
+        }
+        return false;
+    }
+
+    // an explicit stack of nodes and their rectangles, one per query
+    private static class Stack {
+        private int[] nodes = new int[64];              // the nodes
+        private double[] bounds = new double[4 * 64];   // xmin, ymin, xmax, ymax of each node
+        private int n;                                  // number of nodes on the stack
+
+        // push a node with its rectangle, ignoring -1
+        void push(int node, double xmin, double ymin, double xmax, double ymax) {
+            if (node == -1) return;
+            if (n == nodes.length) {
+                nodes = Arrays.copyOf(nodes, 2 * n);
+                bounds = Arrays.copyOf(bounds, 8 * n);
+            }
+            nodes[n] = node;
+            bounds[4 * n] = xmin;
+            bounds[4 * n + 1] = ymin;
+            bounds[4 * n + 2] = xmax;
+            bounds[4 * n + 3] = ymax;
+            n++;
+        }
+    }
+
+    /**
+     * all points that are inside the rectangle (or on the boundary)
+     *
+     * @param rect the rectangle
+     * @return all points that are inside the rectangle (or on the boundary)
+     * @throws IllegalArgumentException if the argument is null
+     */
+    public Iterable<Point2D> range(RectHV rect) {
+        if (rect == null) throw new IllegalArgumentException("argument to range() is null");
+        Queue<Point2D> queue = new Queue<Point2D>();
+        range(rect, queue::enqueue);
+        return queue;
+    }
+
+    /**
+     * pass every point that is inside the rectangle (or on the boundary) to the action
+     *
+     * @param rect the rectangle
+     * @param action the action to perform on each point
+     * @throws IllegalArgumentException if any argument is null
+     */
+    public void range(RectHV rect, Consumer<? super Point2D> action) {
+        if (rect == null) throw new IllegalArgumentException("argument to range() is null");
+        if (action == null) throw new IllegalArgumentException("action of range() is null");
+        double qxmin = rect.xmin(), qymin = rect.ymin(), qxmax = rect.xmax(), qymax = rect.ymax();
+        Stack stack = new Stack();
+        if (nodes > 0) stack.push(0, 0, 0, 1, 1);
+        while (stack.n > 0) {
+            int r = stack.nodes[--stack.n];
+            double x = x(r);
+            double y = y(r);
+            int flags = flags(r);
+            if ((flags & DELETED) == 0 && x >= qxmin && x <= qxmax && y >= qymin && y <= qymax)
+                action.accept(new Point2D(x, y));
+
+            // the left/bottom rectangle ends at the split, the right/top one starts at it
+            boolean isVertical = (flags & VERTICAL) != 0;
+            double split = isVertical ? x : y;
+            if ((isVertical ? qxmax : qymax) >= split) stack.push(right(r), 0, 0, 1, 1);
+            if ((isVertical ? qxmin : qymin) <= split) stack.push(left(r), 0, 0, 1, 1);
+        }
+    }
+
+    /**
+     * a nearest neighbor in the set to point p; null if the set is empty
+     *
+     * @param p the point to check
+     * @return a nearest neighbor in the set to point p; null if the set is empty
+     * @throws IllegalArgumentException if the argument is null
+     */
+    public Point2D nearest(Point2D p) {
+        if (p == null) throw new IllegalArgumentException("argument to nearest() is null");
+        if (isEmpty()) return null;
+        double px = p.x();
+        double py = p.y();
+        int best = -1;
+        double bestDistance = Double.POSITIVE_INFINITY;
+        Stack stack = new Stack();
+        stack.push(0, 0, 0, 1, 1);
+        while (stack.n > 0) {
+            int r = stack.nodes[--stack.n];
+            int i = 4 * stack.n;
+            double xmin = stack.bounds[i], ymin = stack.bounds[i + 1];
+            double xmax = stack.bounds[i + 2], ymax = stack.bounds[i + 3];
+            // there is no need to search a node (or its subtrees) if
+            // the nearest distance so far is closer than the distance between
+            // the query point and the rectangle corresponding to the node
+            double dx = px < xmin ? xmin - px : (px > xmax ? px - xmax : 0.0);
+            double dy = py < ymin ? ymin - py : (py > ymax ? py - ymax : 0.0);
+            if (dx * dx + dy * dy >= bestDistance) continue;
+
+            double x = x(r);
+            double y = y(r);
+            int flags = flags(r);
+            double distance = (x - px) * (x - px) + (y - py) * (y - py);
+            if (distance < bestDistance && (flags & DELETED) == 0) {
+                best = r;
+                bestDistance = distance;
+            }
+
+            // search the subtree on the same side as the query point first, so push it last
+            if ((flags & VERTICAL) != 0) {
+                if (px < x) {
+                    stack.push(right(r), x, ymin, xmax, ymax);
+                    stack.push(left(r), xmin, ymin, x, ymax);
+                } else {
+                    stack.push(left(r), xmin, ymin, x, ymax);
+                    stack.push(right(r), x, ymin, xmax, ymax);
+                }
+            } else {
+                if (py < y) {
+                    stack.push(right(r), xmin, y, xmax, ymax);
+                    stack.push(left(r), xmin, ymin, xmax, y);
+                } else {
+                    stack.push(left(r), xmin, ymin, xmax, y);
+                    stack.push(right(r), xmin, y, xmax, ymax);
+                }
+            }
+        }
+        return new Point2D(x(best), y(best));
+    }
+
+    /**
+     * unit testing of the methods
+     *
+     * builds a {@code KdTree} of n random points ( default: 1000000 ), deletes a tenth of them,
+     * saves it to a temporary file and maps it back, then checks that both agree on
+     * {@code contains()}, {@code range()} and {@code nearest()} for random queries.
+     *
+     * @param args the command-line arguments
+     * @throws IOException if the temporary file cannot be created
+     */
+    public static void main(String[] args) throws IOException {
+        int n = args.length > 0 ? Integer.parseInt(args[0]) : 1000000;
+        Point2D[] points = new Point2D[n];
+        for (int i = 0; i < n; i++) points[i] = new Point2D(StdRandom.uniformDouble(), StdRandom.uniformDouble());
+        KdTree kdtree = KdTree.build(points);
+        for (int i = 0; i < n / 10; i++) kdtree.delete(points[i]);
+        for (int i = 0; i < 1000; i++) kdtree.insert(new Point2D(StdRandom.uniformDouble(), StdRandom.uniformDouble()));
+
+        File file = File.createTempFile("kdtree", ".bin");
+        file.deleteOnExit();
+        Stopwatch stopwatch = new Stopwatch();
+        kdtree.save(file.getPath());
+        StdOut.printf("save: %.3f s, %d bytes\n", stopwatch.elapsedTime(), file.length());
+        stopwatch = new Stopwatch();
+        MappedKdTree mapped = new MappedKdTree(file.getPath());
+        StdOut.printf("open: %.3f s\n", stopwatch.elapsedTime());
+        StdOut.println("size: " + mapped.size() + " ( KdTree: " + kdtree.size() + " )");
+
+        int mismatches = 0;
+        for (int i = 0; i < 1000; i++) {
+            Point2D query = points[StdRandom.uniformInt(n)];
+            if (mapped.contains(query) != kdtree.contains(query)) mismatches++;
+            query = new Point2D(StdRandom.uniformDouble(), StdRandom.uniformDouble());
+            if (query.distanceSquaredTo(mapped.nearest(query))
+                != query.distanceSquaredTo(kdtree.nearest(query))) mismatches++;
+
+            double x = StdRandom.uniformDouble(0.0, 0.99);
+            double y = StdRandom.uniformDouble(0.0, 0.99);
+            RectHV rect = new RectHV(x, y, x + 0.01, y + 0.01);
+            int count = 0;
+            for (Point2D p : mapped.range(rect)) count++;
+            for (Point2D p : kdtree.range(rect)) count--;
+            if (count != 0) mismatches++;
+        }
+        StdOut.println("mismatches: " + mismatches);
+    }
+}
@@ -12,6 +12,7 @@ import edu.princeton.cs.algs4.Point2D;
 import edu.princeton.cs.algs4.RectHV;
 import edu.princeton.cs.algs4.SET;
 import edu.princeton.cs.algs4.StdOut;
+import java.util.function.Consumer;
 
 /**
  * The {@code PointSET} class represents a set of points in the unit square, using a red-black BST.
@@ -95,12 +96,44 @@ public class PointSET {
     public Iterable<Point2D> range(RectHV rect) {
         if (rect == null) throw new IllegalArgumentException("argument to range() is null");
         SET<Point2D> rangeSet = new SET<Point2D>();
+        range(rect, rangeSet::add);
+        return rangeSet;
+    }
+
+    /**
+     * pass every point that is inside the rectangle (or on the boundary) to the action,
+     * without collecting them first
+     * 
+     * @param rect the rectangle to check
+     * @param action the action to perform on each point
+     * @throws IllegalArgumentException if any argument is null
+     */
+    public void range(RectHV rect, Consumer<? super Point2D> action) {
+        if (rect == null) throw new IllegalArgumentException("argument to range() is null");
+        if (action == null) throw new IllegalArgumentException("action of range() is null");
         for (Point2D p : set) {
             if (rect.contains(p)) {
-                rangeSet.add(p);
+                action.accept(p);
             }
         }
-        return rangeSet;
+    }
+
+    /**
+     * number of points that are inside the rectangle (or on the boundary)
+     * 
+     * @param rect the rectangle to check
+     * @return the number of points inside the rectangle (or on the boundary)
+     * @throws IllegalArgumentException if the argument is null
+     */
+    public int countRange(RectHV rect) {
+        if (rect == null) throw new IllegalArgumentException("argument to countRange() is null");
+        int count = 0;
+        for (Point2D p : set) {
+            if (rect.contains(p)) {
+                count++;
+            }
+        }
+        return count;
     }
 
     /**
@@ -142,6 +175,7 @@ public class PointSET {
         StdOut.println("pointSet.contains(new Point2D(0.3, 0.3)) = " + pointSet.contains(new Point2D(0.3, 0.3)));
         StdOut.println("pointSet.range(new RectHV(0.1, 0.1, 0.2, 0.2)) = " + pointSet.range(new RectHV(0.1, 0.1, 0.2, 0.2)));
         StdOut.println("pointSet.range(new RectHV(0.15, 0.05, 0.5, 0.5)) = " + pointSet.range(new RectHV(0.15, 0.05, 0.5, 0.5)));
+        StdOut.println("pointSet.countRange(new RectHV(0.0, 0.0, 0.5, 0.5)) = " + pointSet.countRange(new RectHV(0.0, 0.0, 0.5, 0.5)));
         StdOut.println("pointSet.nearest(new Point2D(0.5, 0.3)) = " + pointSet.nearest(new Point2D(0.3, 0.3)));
 
         pointSet.draw();
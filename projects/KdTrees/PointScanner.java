@@ -0,0 +1,246 @@
+/* ******************************************************************************************************
+ *
+ *  Name:               MinJoker
+ *  Date:               19/10/2026
+ *  Libraries:          algs4.jar
+ *  Project source:     https://coursera.cs.princeton.edu/algs4/assignments/kdtree/specification.php
+ *
+ ***************************************************************************************************** */
+
+import edu.princeton.cs.algs4.StdOut;
+import edu.princeton.cs.algs4.StdRandom;
+import edu.princeton.cs.algs4.Stopwatch;
+
+/**
+ * The {@code PointScanner} class provides brute-force nearest neighbor, k nearest neighbors
+ * and range scans over points stored as parallel arrays {@code xs} and {@code ys},
+ * for the small sets where a scan beats a tree, and for the leaves of bucketed trees.
+ *
+ * some key points as follows:
+ *
+ * 1. every scan works on a slice {@code [lo, hi)} of the arrays, and returns indices
+ *    into them, so the caller keeps its own points and nothing is allocated.
+ * 2. the nearest neighbor scans are single loops over primitive arrays. after the first few
+ *    points a closer point is rare, so the only branch is almost always predicted, and the JIT
+ *    unrolls the loop. a blocked version, taking the minimum of each block first, measured
+ *    twice as slow, as the JIT does not vectorize the reduction of {@code Math.min()}.
+ * 3. the range scan is branch-free: every index is written, and the count only advances
+ *    on a match, so the cost does not depend on how predictable the matches are.
+ *    this is 2 to 3 times faster than the plain loop when about half the points match,
+ *    where the branch of the plain loop is mispredicted half of the time.
+ *
+ * note that all the scans are scalar code. the {@code jdk.incubator.vector} API would
+ * vectorize them explicitly, but it needs {@code --add-modules} at compile time and at
+ * run time, which the rest of the project does not, so this class does not use it.
+ *
+ * more details can be found in the project source:
+ * https://coursera.cs.princeton.edu/algs4/assignments/kdtree/specification.php
+ */
+
+public class PointScanner {
+    // this class should not be instantiated
+    private PointScanner() { }
+
+    // check the arrays and the slice [lo, hi)
+    private static void check(double[] xs, double[] ys, int lo, int hi) {
+        if (xs == null || ys == null) throw new IllegalArgumentException("coordinate array is null");
+        if (lo < 0 || lo > hi || hi > xs.length || hi > ys.length)
+            throw new IllegalArgumentException("invalid slice [" + lo + ", " + hi + ")");
+    }
+
+    /**
+     * index of a nearest point to (px, py) in the slice [lo, hi) of the arrays
+     *
+     * @param xs the x-coordinates
+     * @param ys the y-coordinates
+     * @param lo the first index of the slice
+     * @param hi one past the last index of the slice
+     * @param px the x-coordinate of the query point
+     * @param py the y-coordinate of the query point
+     * @return the index of a nearest point, or -1 if the slice is empty
+     * @throws IllegalArgumentException if an array is null or the slice is not inside both arrays
+     */
+    public static int nearest(double[] xs, double[] ys, int lo, int hi, double px, double py) {
+        check(xs, ys, lo, hi);
+        int nearest = -1;
+        double minDistance = Double.POSITIVE_INFINITY;
+        for (int i = lo; i < hi; i++) {
+            double dx = xs[i] - px;
+            double dy = ys[i] - py;
+            double distance = dx * dx + dy * dy;
+            if (distance < minDistance) {
+                minDistance = distance;
+                nearest = i;
+            }
+        }
+        return nearest;
+    }
+
+    /**
+     * indices of the k nearest points to (px, py) in the slice [lo, hi) of the arrays
+     *
+     * @param xs the x-coordinates
+     * @param ys the y-coordinates
+     * @param lo the first index of the slice
+     * @param hi one past the last index of the slice
+     * @param px the x-coordinate of the query point
+     * @param py the y-coordinate of the query point
+     * @param k the number of neighbors
+     * @param out the buffer that receives the indices, nearest first
+     * @param distances the buffer that receives the squared distances, in the same order
+     * @return the number of neighbors found, that is, {@code min(k, hi - lo)}
+     * @throws IllegalArgumentException if an array is null, the slice is not inside both arrays,
+     *         or unless {@code 0 <= k <= out.length} and {@code k <= distances.length}
+     */
+    public static int nearest(double[] xs, double[] ys, int lo, int hi, double px, double py,
+                              int k, int[] out, double[] distances) {
+        check(xs, ys, lo, hi);
+        if (out == null || distances == null) throw new IllegalArgumentException("buffer of nearest() is null");
+        if (k < 0 || k > out.length || k > distances.length)
+            throw new IllegalArgumentException("k must be between 0 and the length of the buffers");
+        if (k == 0) return 0;
+        int n = 0;
+        double bound = Double.POSITIVE_INFINITY;     // the k-th distance, once there are k points
+        for (int i = lo; i < hi; i++) {
+            double dx = xs[i] - px;
+            double dy = ys[i] - py;
+            double distance = dx * dx + dy * dy;
+            if (distance >= bound) continue;
+            // insertion into the sorted buffers, dropping the farthest one if they are full
+            int j = n < k ? n++ : k - 1;
+            for (; j > 0 && distances[j - 1] > distance; j--) {
+                distances[j] = distances[j - 1];
+                out[j] = out[j - 1];
+            }
+            distances[j] = distance;
+            out[j] = i;
+            if (n == k) bound = distances[k - 1];
+        }
+        return n;
+    }
+
+    /**
+     * indices of the points inside [xmin, xmax] x [ymin, ymax] (or on the boundary)
+     * in the slice [lo, hi) of the arrays
+     *
+     * @param xs the x-coordinates
+     * @param ys the y-coordinates
+     * @param lo the first index of the slice
+     * @param hi one past the last index of the slice
+     * @param xmin the minimum x-coordinate of the rectangle
+     * @param ymin the minimum y-coordinate of the rectangle
+     * @param xmax the maximum x-coordinate of the rectangle
+     * @param ymax the maximum y-coordinate of the rectangle
+     * @param out the buffer that receives the indices, in increasing order
+     * @return the number of points found
+     * @throws IllegalArgumentException if an array is null, the slice is not inside both arrays,
+     *         or unless {@code out.length >= hi - lo}
+     */
+    public static int range(double[] xs, double[] ys, int lo, int hi,
+                            double xmin, double ymin, double xmax, double ymax, int[] out) {
+        check(xs, ys, lo, hi);
+        if (out == null) throw new IllegalArgumentException("buffer of range() is null");
+        if (out.length < hi - lo) throw new IllegalArgumentException("buffer of range() is too small");
+        int n = 0;
+        for (int i = lo; i < hi; i++) {
+            double x = xs[i];
+            double y = ys[i];
+            out[n] = i;
+            // non-short-circuit operators, so there is no branch
+            n += (x >= xmin & x <= xmax & y >= ymin & y <= ymax) ? 1 : 0;
+        }
+        return n;
+    }
+
+    // the plain range loop, with a branch per point ( for comparison in main() only )
+    private static int rangePlain(double[] xs, double[] ys, int lo, int hi,
+                                  double xmin, double ymin, double xmax, double ymax, int[] out) {
+        int n = 0;
+        for (int i = lo; i < hi; i++) {
+            if (xs[i] >= xmin && xs[i] <= xmax && ys[i] >= ymin && ys[i] <= ymax) out[n++] = i;
+        }
+        return n;
+    }
+
+    /**
+     * unit testing of the methods
+     *
+     * checks the scans against naive loops for random slices of n random points
+     * ( default: 1000 ), then times the branch-free range scan against the plain loop
+     * on rectangles holding half of the points.
+     *
+     * @param args the command-line arguments
+     */
+    public static void main(String[] args) {
+        int n = args.length > 0 ? Integer.parseInt(args[0]) : 1000;
+        double[] xs = new double[n];
+        double[] ys = new double[n];
+        for (int i = 0; i < n; i++) {
+            xs[i] = StdRandom.uniformDouble();
+            ys[i] = StdRandom.uniformDouble();
+        }
+
+        int k = 8;
+        int[] out = new int[n];
+        double[] distances = new double[k];
+        int mismatches = 0;
+        for (int t = 0; t < 10000; t++) {
+            int lo = StdRandom.uniformInt(n + 1);
+            int hi = lo + StdRandom.uniformInt(n - lo + 1);
+            double px = StdRandom.uniformDouble();
+            double py = StdRandom.uniformDouble();
+
+            // the distances of the neighbors, by counting the points that are closer
+            int nearest = nearest(xs, ys, lo, hi, px, py);
+            if ((nearest == -1) != (lo == hi)) mismatches++;
+            else if (nearest != -1) {
+                double best = (xs[nearest] - px) * (xs[nearest] - px) + (ys[nearest] - py) * (ys[nearest] - py);
+                for (int i = lo; i < hi; i++) {
+                    double d = (xs[i] - px) * (xs[i] - px) + (ys[i] - py) * (ys[i] - py);
+                    if (d < best) mismatches++;
+                }
+            }
+            int found = nearest(xs, ys, lo, hi, px, py, k, out, distances);
+            if (found != Math.min(k, hi - lo)) mismatches++;
+            for (int j = 0; j < found; j++) {
+                int closer = 0;
+                for (int i = lo; i < hi; i++) {
+                    double d = (xs[i] - px) * (xs[i] - px) + (ys[i] - py) * (ys[i] - py);
+                    if (d < distances[j]) closer++;
+                }
+                if (closer > j) mismatches++;
+            }
+
+            int count = range(xs, ys, lo, hi, px - 0.1, py - 0.1, px + 0.1, py + 0.1, out);
+            if (count != rangePlain(xs, ys, lo, hi, px - 0.1, py - 0.1, px + 0.1, py + 0.1, out)) mismatches++;
+            for (int i = lo; i < hi; i++) {
+                if (xs[i] >= px - 0.1 && xs[i] <= px + 0.1 && ys[i] >= py - 0.1 && ys[i] <= py + 0.1) count--;
+            }
+            if (count != 0) mismatches++;
+        }
+        StdOut.println("mismatches: " + mismatches);
+
+        int queries = 20000000 / Math.max(n, 1);
+        double side = Math.sqrt(0.5);
+        long sink = 0;
+        for (int round = 0; round < 3; round++) {   // the first rounds warm up the JIT
+            Stopwatch stopwatch = new Stopwatch();
+            for (int t = 0; t < queries; t++) {
+                double x = StdRandom.uniformDouble(0.0, 1.0 - side);
+                double y = StdRandom.uniformDouble(0.0, 1.0 - side);
+                sink += rangePlain(xs, ys, 0, n, x, y, x + side, y + side, out);
+            }
+            double plain = stopwatch.elapsedTime();
+            stopwatch = new Stopwatch();
+            for (int t = 0; t < queries; t++) {
+                double x = StdRandom.uniformDouble(0.0, 1.0 - side);
+                double y = StdRandom.uniformDouble(0.0, 1.0 - side);
+                sink += range(xs, ys, 0, n, x, y, x + side, y + side, out);
+            }
+            double branchFree = stopwatch.elapsedTime();
+            if (round == 2) StdOut.printf("range: %.1f ns per point ( plain loop: %.1f ns )\n",
+                                          branchFree * 1e9 / queries / n, plain * 1e9 / queries / n);
+        }
+        if (sink == 42) StdOut.println();   // keeps the results alive
+    }
+}
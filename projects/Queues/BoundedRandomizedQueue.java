@@ -0,0 +1,367 @@
+/* ***********************************************************************************************************
+ *
+ *  Name:               MinJoker
+ *  Date:               19/10/2026
+ *  Libraries:          algs4.jar
+ *  Project source:     https://coursera.cs.princeton.edu/algs4/assignments/queues/specification.php
+ *
+ ********************************************************************************************************** */
+
+import edu.princeton.cs.algs4.StdOut;
+import edu.princeton.cs.algs4.StdRandom;
+import java.util.Iterator;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * the {@code BoundedRandomizedQueue} class represents a thread-safe randomized queue
+ * with a fixed capacity, for producer/consumer pipelines that need backpressure.
+ *
+ * some key points as follows:
+ *
+ * 1. the ring buffer is allocated once in the constructor and never resized,
+ *    so a burst of items can neither trigger a run of copies nor exhaust the heap.
+ *    as in {@code RandomizedQueue}, its length is a power of two and indices wrap around
+ *    with a mask. the capacity itself can be any positive number.
+ * 2. all operations hold a single {@code ReentrantLock}, like {@code ArrayBlockingQueue}.
+ *    producers wait on {@code notFull}, and consumers wait on {@code notEmpty}.
+ * 3. there are three flavours of adding and removing an item:
+ *    {@code put()} and {@code take()} block until they succeed,
+ *    {@code offer(item, timeout, unit)} and {@code poll(timeout, unit)} give up after a timeout,
+ *    {@code offer(item)} and {@code poll()} return at once.
+ *
+ * more details can be found in the project source:
+ * https://coursera.cs.princeton.edu/algs4/assignments/queues/specification.php
+ */
+
+public class BoundedRandomizedQueue<Item> implements Iterable<Item> {
+    private final Item[] queue;         // queue elements
+    private final int capacity;         // maximum number of elements on queue
+    private final int mask;             // queue.length - 1
+    private int size;                   // number of elements on queue
+    private int first;                  // index of first element of queue
+    private int last;                   // index of next available slot
+
+    private final ReentrantLock lock;   // guards all the fields above
+    private final Condition notEmpty;   // signalled when an item is added
+    private final Condition notFull;    // signalled when an item is removed
+
+    /**
+     * construct an empty randomized queue that holds at most capacity items
+     *
+     * @param capacity the maximum number of items
+     * @throws IllegalArgumentException unless {@code 1 <= capacity <= 2^30}
+     */
+    public BoundedRandomizedQueue(int capacity) {
+        if (capacity < 1 || capacity > (1 << 30))
+            throw new IllegalArgumentException("capacity must be between 1 and 2^30");
+        int length = Integer.highestOneBit(capacity);
+        if (length < capacity) length <<= 1;
+        queue = (Item[]) new Object[length];
+        this.capacity = capacity;
+        mask = length - 1;
+        size = 0;
+        first = 0;
+        last = 0;
+        lock = new ReentrantLock();
+        notEmpty = lock.newCondition();
+        notFull = lock.newCondition();
+    }
+
+    /**
+     * is the randomized queue empty?
+     *
+     * @return true if randomized queue is empty, false otherwise
+     */
+    public boolean isEmpty() {
+        return size() == 0;
+    }
+
+    /**
+     * return the number of items on the randomized queue
+     *
+     * @return number of items on randomized queue
+     */
+    public int size() {
+        lock.lock();
+        try {
+            return size;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * return the maximum number of items on the randomized queue
+     *
+     * @return the capacity of randomized queue
+     */
+    public int capacity() {
+        return capacity;
+    }
+
+    /**
+     * return the number of items that can be added without blocking
+     *
+     * @return the remaining capacity of randomized queue
+     */
+    public int remainingCapacity() {
+        lock.lock();
+        try {
+            return capacity - size;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    // add the item, the caller holds the lock and has checked that the queue is not full
+    private void enqueue(Item item) {
+        queue[last] = item;
+        last = (last + 1) & mask;  // wrap-around
+        size++;
+        notEmpty.signal();
+    }
+
+    // remove a random item, the caller holds the lock and has checked that the queue is not empty
+    private Item dequeue() {
+        int index = (StdRandom.uniformInt(size) + first) & mask;
+        Item item = queue[index];
+        queue[index] = queue[first];
+        queue[first] = null;    // to avoid loitering
+        size--;
+        first = (first + 1) & mask;  // wrap-around
+        notFull.signal();
+        return item;
+    }
+
+    /**
+     * add the item, waiting for space if the queue is full
+     *
+     * @param item the item to add
+     * @throws IllegalArgumentException if {@code item == null}
+     * @throws InterruptedException if interrupted while waiting
+     */
+    public void put(Item item) throws InterruptedException {
+        if (item == null) throw new IllegalArgumentException();
+        lock.lockInterruptibly();
+        try {
+            while (size == capacity) notFull.await();
+            enqueue(item);
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * add the item if the queue is not full
+     *
+     * @param item the item to add
+     * @return true if the item was added, false if the queue is full
+     * @throws IllegalArgumentException if {@code item == null}
+     */
+    public boolean offer(Item item) {
+        if (item == null) throw new IllegalArgumentException();
+        lock.lock();
+        try {
+            if (size == capacity) return false;
+            enqueue(item);
+            return true;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * add the item, waiting up to the timeout for space if the queue is full
+     *
+     * @param item the item to add
+     * @param timeout how long to wait, in units of {@code unit}
+     * @param unit the unit of {@code timeout}
+     * @return true if the item was added, false if the timeout elapsed first
+     * @throws IllegalArgumentException if {@code item == null} or {@code unit == null}
+     * @throws InterruptedException if interrupted while waiting
+     */
+    public boolean offer(Item item, long timeout, TimeUnit unit) throws InterruptedException {
+        if (item == null || unit == null) throw new IllegalArgumentException();
+        long nanos = unit.toNanos(timeout);
+        lock.lockInterruptibly();
+        try {
+            while (size == capacity) {
+                if (nanos <= 0) return false;
+                nanos = notFull.awaitNanos(nanos);
+            }
+            enqueue(item);
+            return true;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * remove and return a random item, waiting for one if the queue is empty
+     *
+     * @return a random item
+     * @throws InterruptedException if interrupted while waiting
+     */
+    public Item take() throws InterruptedException {
+        lock.lockInterruptibly();
+        try {
+            while (size == 0) notEmpty.await();
+            return dequeue();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * remove and return a random item if the queue is not empty
+     *
+     * @return a random item, or null if the queue is empty
+     */
+    public Item poll() {
+        lock.lock();
+        try {
+            if (size == 0) return null;
+            return dequeue();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * remove and return a random item, waiting up to the timeout for one if the queue is empty
+     *
+     * @param timeout how long to wait, in units of {@code unit}
+     * @param unit the unit of {@code timeout}
+     * @return a random item, or null if the timeout elapsed first
+     * @throws IllegalArgumentException if {@code unit == null}
+     * @throws InterruptedException if interrupted while waiting
+     */
+    public Item poll(long timeout, TimeUnit unit) throws InterruptedException {
+        if (unit == null) throw new IllegalArgumentException();
+        long nanos = unit.toNanos(timeout);
+        lock.lockInterruptibly();
+        try {
+            while (size == 0) {
+                if (nanos <= 0) return null;
+                nanos = notEmpty.awaitNanos(nanos);
+            }
+            return dequeue();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * return a random item (but do not remove it)
+     *
+     * @return a random item, or null if the queue is empty
+     */
+    public Item sample() {
+        lock.lock();
+        try {
+            if (size == 0) return null;
+            return queue[(StdRandom.uniformInt(size) + first) & mask];
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * return an independent iterator over a snapshot of the items in random order
+     *
+     * note that the snapshot is taken under the lock, so the iterator
+     * does not see later changes and never blocks producers or consumers.
+     */
+    public Iterator<Item> iterator() {
+        Object[] snapshot;
+        lock.lock();
+        try {
+            snapshot = new Object[size];
+            for (int i = 0; i < size; i++) {
+                snapshot[i] = queue[(first + i) & mask];
+            }
+        } finally {
+            lock.unlock();
+        }
+        StdRandom.shuffle(snapshot);
+        return new BoundedRandomizedQueueIterator(snapshot);
+    }
+
+    // the iterator
+    private class BoundedRandomizedQueueIterator implements Iterator<Item> {
+        private final Object[] items;
+        private int current;
+
+        public BoundedRandomizedQueueIterator(Object[] items) {
+            this.items = items;
+            current = 0;
+        }
+
+        public boolean hasNext() {
+            return current < items.length;
+        }
+
+        public Item next() {
+            if (!hasNext()) throw new java.util.NoSuchElementException();
+            return (Item) items[current++];
+        }
+
+        // not supported
+        public void remove() {
+            throw new UnsupportedOperationException();
+        }
+    }
+
+    /**
+     * unit testing
+     *
+     * runs 4 producers and 4 consumers over a queue of capacity 16,
+     * then checks that every item produced was consumed exactly once.
+     * tests {@code offer()}, {@code poll()} and the timed variants as well.
+     *
+     * @param args the command-line arguments
+     * @throws InterruptedException if interrupted while waiting for the workers
+     */
+    public static void main(String[] args) throws InterruptedException {
+        BoundedRandomizedQueue<Integer> brq = new BoundedRandomizedQueue<Integer>(16);
+        int threads = 4;
+        int perThread = 100000;
+        long[] sums = new long[threads];
+        Thread[] workers = new Thread[2 * threads];
+        for (int t = 0; t < threads; t++) {
+            final int id = t;
+            workers[t] = new Thread(() -> {
+                try {
+                    for (int i = 1; i <= perThread; i++) brq.put(i);
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+            });
+            workers[threads + t] = new Thread(() -> {
+                try {
+                    for (int i = 0; i < perThread; i++) sums[id] += brq.take();
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+            });
+        }
+        for (Thread worker : workers) worker.start();
+        for (Thread worker : workers) worker.join();
+
+        long total = 0;
+        for (long sum : sums) total += sum;
+        StdOut.println("Sum: " + total + " ( expected " + (long) threads * perThread * (perThread + 1) / 2 + " )");
+        StdOut.println("Is empty: " + brq.isEmpty());
+
+        for (int i = 0; i < brq.capacity(); i++) brq.offer(i);
+        StdOut.println("Offer when full: " + brq.offer(-1));
+        StdOut.println("Timed offer when full: " + brq.offer(-1, 10, TimeUnit.MILLISECONDS));
+        for (int i : brq) StdOut.print(i + " ");
+        StdOut.println();
+        while (brq.poll() != null) { }
+        StdOut.println("Timed poll when empty: " + brq.poll(10, TimeUnit.MILLISECONDS));
+        StdOut.println("Remaining capacity: " + brq.remainingCapacity());
+    }
+}
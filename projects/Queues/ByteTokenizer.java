@@ -0,0 +1,184 @@
+/* ***********************************************************************************************************
+ *
+ *  Name:               MinJoker
+ *  Date:               19/10/2026
+ *  Libraries:          algs4.jar
+ *  Project source:     https://coursera.cs.princeton.edu/algs4/assignments/queues/specification.php
+ *
+ ********************************************************************************************************** */
+
+import edu.princeton.cs.algs4.StdOut;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+
+/**
+ * the {@code ByteTokenizer} class splits an input stream into whitespace-separated tokens.
+ *
+ * {@code StdIn.readString()} goes through a {@code Scanner} and a regular expression
+ * for every token. this class scans raw bytes out of a large buffer instead,
+ * and only decodes ( as UTF-8 ) the tokens that are actually returned by {@code next()}.
+ * tokens passed over by {@code skip()} are never turned into strings.
+ * a {@code ByteBuffer}, such as a memory-mapped region of a file, can be tokenized as well.
+ *
+ * note that only the ASCII whitespace characters ( space, tab, line feed,
+ * vertical tab, form feed and carriage return ) separate tokens.
+ */
+
+public class ByteTokenizer {
+    private static final int BUFFER_SIZE = 1 << 16;
+
+    private final InputStream in;    // the underlying input stream, or null
+    private final ByteBuffer source; // the underlying byte buffer, or null
+    private final byte[] buffer;     // bytes read but not consumed yet are in [pos, limit)
+    private int pos;                 // index of the next byte to consume
+    private int limit;               // number of valid bytes in buffer
+    private byte[] token;            // scratch space for tokens that cross buffer boundaries
+
+    /**
+     * construct a tokenizer over the input stream
+     *
+     * @param in the input stream
+     * @throws IllegalArgumentException if {@code in == null}
+     */
+    public ByteTokenizer(InputStream in) {
+        if (in == null) throw new IllegalArgumentException("input stream is null");
+        this.in = in;
+        source = null;
+        buffer = new byte[BUFFER_SIZE];
+        pos = 0;
+        limit = 0;
+        token = new byte[64];
+    }
+
+    /**
+     * construct a tokenizer over the remaining bytes of the byte buffer
+     *
+     * note that the position of the byte buffer is advanced as tokens are read.
+     *
+     * @param source the byte buffer
+     * @throws IllegalArgumentException if {@code source == null}
+     */
+    public ByteTokenizer(ByteBuffer source) {
+        if (source == null) throw new IllegalArgumentException("byte buffer is null");
+        this.source = source;
+        in = null;
+        buffer = new byte[BUFFER_SIZE];
+        pos = 0;
+        limit = 0;
+        token = new byte[64];
+    }
+
+    // refill the buffer, return false on end of stream
+    private boolean fill() {
+        if (source != null) {
+            int n = Math.min(buffer.length, source.remaining());
+            source.get(buffer, 0, n);
+            pos = 0;
+            limit = n;
+            return n > 0;
+        }
+        try {
+            int n = in.read(buffer, 0, buffer.length);
+            while (n == 0) n = in.read(buffer, 0, buffer.length);
+            pos = 0;
+            limit = Math.max(n, 0);
+            return n > 0;
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    // is b a whitespace byte?
+    private static boolean isWhitespace(byte b) {
+        return b == ' ' || (b >= '\t' && b <= '\r');
+    }
+
+    /**
+     * is there another token?
+     *
+     * @return true if there is another token, false otherwise
+     */
+    public boolean hasNext() {
+        while (true) {
+            while (pos < limit) {
+                if (!isWhitespace(buffer[pos])) return true;
+                pos++;
+            }
+            if (!fill()) return false;
+        }
+    }
+
+    /**
+     * return the next token
+     *
+     * @return the next token
+     * @throws java.util.NoSuchElementException if there is no more token
+     */
+    public String next() {
+        if (!hasNext()) throw new java.util.NoSuchElementException("no more tokens");
+        int start = pos;
+        while (pos < limit && !isWhitespace(buffer[pos])) pos++;
+        if (pos < limit) {
+            // fast path: the token lies entirely in the buffer
+            return new String(buffer, start, pos - start, StandardCharsets.UTF_8);
+        }
+
+        // slow path: the token crosses a buffer boundary
+        int length = 0;
+        while (true) {
+            int n = pos - start;
+            if (length + n > token.length) {
+                byte[] copy = new byte[Math.max(2 * token.length, length + n)];
+                System.arraycopy(token, 0, copy, 0, length);
+                token = copy;
+            }
+            System.arraycopy(buffer, start, token, length, n);
+            length += n;
+            if (pos < limit || !fill()) break;
+            start = pos;
+            while (pos < limit && !isWhitespace(buffer[pos])) pos++;
+        }
+        return new String(token, 0, length, StandardCharsets.UTF_8);
+    }
+
+    /**
+     * skip the next n tokens without decoding them
+     *
+     * @param n the number of tokens to skip
+     * @return the number of tokens actually skipped, less than {@code n} only at end of stream
+     * @throws IllegalArgumentException if {@code n < 0}
+     */
+    public long skip(long n) {
+        if (n < 0) throw new IllegalArgumentException("n must be non-negative");
+        long skipped = 0;
+        while (skipped < n && hasNext()) {
+            while (true) {
+                while (pos < limit && !isWhitespace(buffer[pos])) pos++;
+                if (pos < limit || !fill()) break;
+            }
+            skipped++;
+        }
+        return skipped;
+    }
+
+    /**
+     * unit testing
+     *
+     * reads tokens from standard input, prints every other one
+     * and reports how many tokens were skipped.
+     *
+     * @param args the command-line arguments
+     */
+    public static void main(String[] args) {
+        ByteTokenizer tokenizer = new ByteTokenizer(System.in);
+        long skipped = 0;
+        while (tokenizer.hasNext()) {
+            StdOut.println(tokenizer.next());
+            skipped += tokenizer.skip(1);
+        }
+        StdOut.println("skipped: " + skipped);
+    }
+}
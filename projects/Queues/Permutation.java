@@ -8,44 +8,139 @@
  * 
  ********************************************************************************************************** */
 
-import edu.princeton.cs.algs4.StdIn;
 import edu.princeton.cs.algs4.StdOut;
-import edu.princeton.cs.algs4.StdRandom;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
 
 /**
  * the {@code Permutation} class is a client program for testing {@code RandomizedQueue} class.
  * 
  * bonus: use only one RandomizedQueue object of maximum size at most {@code k}
- * solution: powered by Knuth shuffle, the algorithm is as follows:
- * read the strings one by one from the standard input, and enqueue the first {@code k} items, then
- * for each item, accept it with probability {@code k / (cnt + 1)}, where{@code cnt} is the number of items read so far.
- * if accepted, dequeue a random item and enqueue the new item.
- * note that the probability of each item remaining in the queue is exactly {@code k / n}.
+ * solution: powered by reservoir sampling, the algorithm is as follows:
+ * read the strings one by one from the standard input, and keep a uniform sample of {@code k} of them
+ * in a {@code ReservoirSampler}, then move the sample into the queue and dequeue it in random order.
+ * note that the probability of each item remaining in the sample is exactly {@code k / n}.
+ * 
+ * the sampler uses Algorithm L, which tells in advance how many upcoming strings will be rejected.
+ * those strings are skipped by a {@code ByteTokenizer} at the byte level, without being decoded,
+ * so the running time is dominated by scanning the input rather than by {@code StdIn}.
+ * 
+ * parallel mode: if a file name is given as the second argument, the file is memory-mapped
+ * and split into chunks on whitespace boundaries. each chunk is sampled independently
+ * on a thread pool, and the samples are combined with {@code ReservoirSampler.merge()},
+ * which keeps the final sample uniform.
  * 
  * more details can be found in the project source:
  * https://coursera.cs.princeton.edu/algs4/assignments/queues/specification.php
  */
 
 public class Permutation {
+    // maximum size of a chunk in parallel mode, a single mapping is limited to 2^31 - 1 bytes
+    private static final long MAX_CHUNK = 1L << 30;
+
+    /**
+     * sample k strings of standard input, or of a file using several threads,
+     * and print them in random order
+     * 
+     * takes a command-line argument {@code k}, and optionally a file name
+     * and the number of threads ( default: the number of available processors ).
+     * 
+     * @param args the command-line arguments
+     */
     public static void main(String[] args) {
         int k = Integer.parseInt(args[0]);  // number of items to print
+        ReservoirSampler<String> sampler;
+        if (args.length > 1) {
+            int threads = args.length > 2 ? Integer.parseInt(args[2])
+                                          : Runtime.getRuntime().availableProcessors();
+            sampler = sample(k, args[1], threads);
+        } else {
+            sampler = sample(k, new ByteTokenizer(System.in));
+        }
+
         RandomizedQueue<String> q = new RandomizedQueue<String>();
-        int cnt = 0;  // number of items read so far
-
-        while (!StdIn.isEmpty()) {
-            String s = StdIn.readString();
-            if (q.size() < k) {
-                // fill the queue with the first k items
-                q.enqueue(s);
-            } else if (StdRandom.uniformInt(cnt + 1) < k) {
-                // accept the new item with probability k / (cnt + 1)
-                q.dequeue();
-                q.enqueue(s);
-            }
-            cnt++;
+        for (String s : sampler) {
+            q.enqueue(s);
         }
-        for (int i = 0; i < k; i++) {   // print the k items
+        while (!q.isEmpty()) {          // print the k items
             StdOut.println(q.dequeue());
         }
     }
+
+    // sample k strings of the tokenizer
+    private static ReservoirSampler<String> sample(int k, ByteTokenizer in) {
+        ReservoirSampler<String> sampler = new ReservoirSampler<String>(k);
+        while (true) {
+            // skip the strings that would be rejected anyway
+            long skip = sampler.skipLength();
+            if (skip > 0) sampler.skip(in.skip(skip));
+            if (!in.hasNext()) break;
+            sampler.add(in.next());
+        }
+        return sampler;
+    }
+
+    // sample k strings of the file, one chunk per task
+    private static ReservoirSampler<String> sample(int k, String filename, int threads) {
+        if (threads < 1) throw new IllegalArgumentException("number of threads must be positive");
+        ExecutorService pool = Executors.newFixedThreadPool(threads);
+        try (FileChannel channel = FileChannel.open(Paths.get(filename), StandardOpenOption.READ)) {
+            long size = channel.size();
+            int chunks = (int) Math.max(threads, (size + MAX_CHUNK - 1) / MAX_CHUNK);
+
+            // cut the file at the first whitespace byte after each nominal boundary
+            long[] bounds = new long[chunks + 1];
+            for (int i = 1; i < chunks; i++) {
+                bounds[i] = nextWhitespace(channel, Math.max(bounds[i - 1], size / chunks * i));
+            }
+            bounds[chunks] = size;
+
+            List<Future<ReservoirSampler<String>>> futures = new ArrayList<Future<ReservoirSampler<String>>>();
+            for (int i = 0; i < chunks; i++) {
+                ByteBuffer chunk = channel.map(FileChannel.MapMode.READ_ONLY, bounds[i], bounds[i + 1] - bounds[i]);
+                futures.add(pool.submit(() -> sample(k, new ByteTokenizer(chunk))));
+            }
+
+            ReservoirSampler<String> sampler = new ReservoirSampler<String>(k);
+            for (Future<ReservoirSampler<String>> future : futures) {
+                sampler = ReservoirSampler.merge(sampler, future.get());
+            }
+            return sampler;
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("interrupted while sampling " + filename, e);
+        } catch (ExecutionException e) {
+            throw new IllegalStateException("failed to sample " + filename, e.getCause());
+        } finally {
+            pool.shutdownNow();
+        }
+    }
+
+    // position of the first whitespace byte at or after position, or the size of the file
+    private static long nextWhitespace(FileChannel channel, long position) throws IOException {
+        ByteBuffer buffer = ByteBuffer.allocate(1 << 12);
+        long size = channel.size();
+        while (position < size) {
+            buffer.clear();
+            int n = channel.read(buffer, position);
+            for (int i = 0; i < n; i++) {
+                byte b = buffer.get(i);
+                if (b == ' ' || (b >= '\t' && b <= '\r')) return position + i;
+            }
+            position += n;
+        }
+        return size;
+    }
 }
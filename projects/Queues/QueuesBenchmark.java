@@ -0,0 +1,321 @@
+/* ***********************************************************************************************************
+ *
+ *  Name:               MinJoker
+ *  Date:               19/10/2026
+ *  Libraries:          algs4.jar
+ *  Project source:     https://coursera.cs.princeton.edu/algs4/assignments/queues/specification.php
+ *
+ ********************************************************************************************************** */
+
+import edu.princeton.cs.algs4.Out;
+import edu.princeton.cs.algs4.StdOut;
+import edu.princeton.cs.algs4.StdRandom;
+import java.lang.management.ManagementFactory;
+import java.util.ArrayDeque;
+import java.util.Iterator;
+import java.util.Locale;
+import java.util.concurrent.ConcurrentLinkedDeque;
+import java.util.function.Supplier;
+
+/**
+ * the {@code QueuesBenchmark} class measures the throughput and the allocation rate
+ * of {@code Deque}, {@code RandomizedQueue}, {@code WeightedRandomizedQueue}
+ * and {@code BoundedRandomizedQueue},
+ * next to {@code java.util.ArrayDeque} and {@code java.util.concurrent.ConcurrentLinkedDeque}.
+ * "RandomizedQueue(modulo)" is the {@code RandomizedQueue} as it was before its indices
+ * wrapped around with a power-of-two mask, to compare the two.
+ *
+ * some key points as follows:
+ *
+ * 1. workloads:
+ *    "pushPop"     keeps {@code n} items in the queue, then removes one and adds one, {@code n} times.
+ *    "iterate"     iterates over {@code n} items.
+ *    "resizeStorm" fills the queue with {@code n} items and drains it, which runs
+ *                  every grow and every shrink ( the {@code size == queue.length/4} path ) in turn.
+ * 2. every workload is run a few times to warm up the JIT, then timed several times,
+ *    and the best run is reported, as the other runs only add noise from the GC and the OS.
+ * 3. allocation per operation is read from {@code com.sun.management.ThreadMXBean},
+ *    which is the same counter that the JMH {@code -prof gc} profiler reports.
+ * 4. the uniformity of the random iterators is checked with a chi-square statistic
+ *    over the position at which a given item is returned.
+ * 5. results are printed, and also written as JSON so that runs can be compared over time.
+ *
+ * note that there is no JMH harness in this project, so this is a plain test client.
+ * run it with a fixed heap ( for example {@code -Xms2g -Xmx2g} ) to get stable numbers.
+ */
+
+public class QueuesBenchmark {
+    private static final int WARMUP = 5;        // number of warm-up runs of a workload
+    private static final int MEASURE = 10;      // number of timed runs of a workload
+    private static final int TRIALS = 100000;   // number of iterators in the uniformity test
+    private static final int BUCKETS = 16;      // number of items in the uniformity test
+
+    private static long sink;                   // consumes results so the JIT keeps the work
+
+    // a queue under test, all of them are used as a bag of integers
+    private abstract static class Subject {
+        abstract void add(Integer item);
+        abstract Integer remove();
+        abstract Iterable<Integer> items();
+    }
+
+    // names and factories of the queues under test
+    private static final String[] NAMES = {
+        "Deque", "RandomizedQueue", "RandomizedQueue(modulo)", "WeightedRandomizedQueue",
+        "BoundedRandomizedQueue", "ArrayDeque", "ConcurrentLinkedDeque"
+    };
+
+    // factory of the named queue, bounded queues get room for n items
+    private static Supplier<Subject> factory(String name, int n) {
+        switch (name) {
+            case "Deque": return () -> new Subject() {
+                private final Deque<Integer> q = new Deque<Integer>();
+                void add(Integer item) { q.addLast(item); }
+                Integer remove() { return q.removeFirst(); }
+                Iterable<Integer> items() { return q; }
+            };
+            case "RandomizedQueue": return () -> new Subject() {
+                private final RandomizedQueue<Integer> q = new RandomizedQueue<Integer>();
+                void add(Integer item) { q.enqueue(item); }
+                Integer remove() { return q.dequeue(); }
+                Iterable<Integer> items() { return q; }
+            };
+            case "RandomizedQueue(modulo)": return () -> new Subject() {
+                private final ModuloRandomizedQueue q = new ModuloRandomizedQueue();
+                void add(Integer item) { q.enqueue(item); }
+                Integer remove() { return q.dequeue(); }
+                Iterable<Integer> items() { return q; }
+            };
+            case "WeightedRandomizedQueue": return () -> new Subject() {
+                private final WeightedRandomizedQueue<Integer> q = new WeightedRandomizedQueue<Integer>();
+                void add(Integer item) { q.enqueue(item, 1.0); }
+                Integer remove() { return q.dequeue(); }
+                Iterable<Integer> items() { return q; }
+            };
+            case "BoundedRandomizedQueue": return () -> new Subject() {
+                private final BoundedRandomizedQueue<Integer> q = new BoundedRandomizedQueue<Integer>(n);
+                void add(Integer item) { q.offer(item); }
+                Integer remove() { return q.poll(); }
+                Iterable<Integer> items() { return q; }
+            };
+            case "ArrayDeque": return () -> new Subject() {
+                private final ArrayDeque<Integer> q = new ArrayDeque<Integer>();
+                void add(Integer item) { q.addLast(item); }
+                Integer remove() { return q.removeFirst(); }
+                Iterable<Integer> items() { return q; }
+            };
+            case "ConcurrentLinkedDeque": return () -> new Subject() {
+                private final ConcurrentLinkedDeque<Integer> q = new ConcurrentLinkedDeque<Integer>();
+                void add(Integer item) { q.addLast(item); }
+                Integer remove() { return q.removeFirst(); }
+                Iterable<Integer> items() { return q; }
+            };
+            default: throw new IllegalArgumentException("unknown queue " + name);
+        }
+    }
+
+    // the RandomizedQueue before it used a power-of-two mask: indices wrap around with % queue.length,
+    // and resize() copies the items one at a time. the items are kept in an Object[], as in the
+    // erased RandomizedQueue<Item>: with an Integer[], resizeStorm ran about 40% faster
+    private static class ModuloRandomizedQueue implements Iterable<Integer> {
+        private Object[] queue = new Object[8];
+        private int size;
+        private int first;
+        private int last;
+
+        private void resize(int capacity) {
+            Object[] copy = new Object[capacity];
+            for (int i = 0; i < size; i++) {
+                copy[i] = queue[(first + i) % queue.length];
+            }
+            queue = copy;
+            first = 0;
+            last  = size;
+        }
+
+        void enqueue(Integer item) {
+            if (size == queue.length) resize(2*queue.length);
+            queue[last++] = item;
+            if (last == queue.length) last = 0; // wrap-around
+            size++;
+        }
+
+        Integer dequeue() {
+            int index = ( StdRandom.uniformInt(size) + first ) % queue.length;
+            Integer item = (Integer) queue[index];
+            queue[index] = queue[first];
+            queue[first] = null;
+            size--;
+            first++;
+            if (first == queue.length) first = 0; // wrap-around
+            if (size > 0 && size == queue.length/4) resize(queue.length/2);
+            return item;
+        }
+
+        public Iterator<Integer> iterator() {
+            int[] indices = new int[size];
+            for (int i = 0; i < size; i++) {
+                indices[i] = (first + i) % queue.length;
+            }
+            StdRandom.shuffle(indices);
+            return new Iterator<Integer>() {
+                private int current = 0;
+                public boolean hasNext() { return current < indices.length; }
+                public Integer next() { return (Integer) queue[indices[current++]]; }
+            };
+        }
+    }
+
+    // a workload, run returns the number of operations performed
+    private interface Workload {
+        long run(Subject subject, Integer[] items);
+    }
+
+    // keep n items in the queue, then remove one and add one, n times
+    private static long pushPop(Subject subject, Integer[] items) {
+        long sum = 0;
+        for (int i = 0; i < items.length; i++) {
+            sum += subject.remove();
+            subject.add(items[i]);
+        }
+        sink += sum;
+        return 2L * items.length;
+    }
+
+    // iterate over all items
+    private static long iterate(Subject subject, Integer[] items) {
+        long sum = 0;
+        for (int item : subject.items()) sum += item;
+        sink += sum;
+        return items.length;
+    }
+
+    // fill the queue, then drain it
+    private static long resizeStorm(Subject subject, Integer[] items) {
+        long sum = 0;
+        for (int i = 0; i < items.length; i++) subject.remove();
+        for (int i = 0; i < items.length; i++) subject.add(items[i]);
+        for (int i = 0; i < items.length; i++) sum += subject.remove();
+        for (int i = 0; i < items.length; i++) subject.add(items[i]);
+        sink += sum;
+        return 4L * items.length;
+    }
+
+    // bytes allocated so far by the current thread, or -1 if unsupported
+    private static long allocatedBytes() {
+        java.lang.management.ThreadMXBean bean = ManagementFactory.getThreadMXBean();
+        if (!(bean instanceof com.sun.management.ThreadMXBean)) return -1;
+        return ((com.sun.management.ThreadMXBean) bean).getThreadAllocatedBytes(Thread.currentThread().getId());
+    }
+
+    // run a workload on a queue pre-filled with n items, return { ops/s, bytes/op } of the best run
+    private static double[] measure(Supplier<Subject> factory, Workload workload, int n) {
+        Integer[] items = new Integer[n];
+        for (int i = 0; i < n; i++) items[i] = i;
+        Subject subject = factory.get();
+        for (int i = 0; i < n; i++) subject.add(items[i]);
+
+        for (int i = 0; i < WARMUP; i++) workload.run(subject, items);
+        double best = 0.0;
+        double bytesPerOp = Double.NaN;
+        for (int i = 0; i < MEASURE; i++) {
+            long bytes = allocatedBytes();
+            long start = System.nanoTime();
+            long ops = workload.run(subject, items);
+            long elapsed = System.nanoTime() - start;
+            double opsPerSecond = ops * 1e9 / Math.max(elapsed, 1);
+            if (opsPerSecond > best) {
+                best = opsPerSecond;
+                if (bytes >= 0) bytesPerOp = (double) (allocatedBytes() - bytes) / ops;
+            }
+        }
+        return new double[] { best, bytesPerOp };
+    }
+
+    // chi-square statistic of the position at which item 0 is returned by the iterator
+    private static double uniformity(Supplier<Subject> factory) {
+        Subject subject = factory.get();
+        for (int i = 0; i < BUCKETS; i++) subject.add(i);
+        int[] counts = new int[BUCKETS];
+        for (int t = 0; t < TRIALS; t++) {
+            Iterator<Integer> it = subject.items().iterator();
+            for (int position = 0; it.hasNext(); position++) {
+                if (it.next() == 0) {
+                    counts[position]++;
+                    break;
+                }
+            }
+        }
+        double expected = (double) TRIALS / BUCKETS;
+        double chiSquare = 0.0;
+        for (int count : counts) chiSquare += (count - expected) * (count - expected) / expected;
+        return chiSquare;
+    }
+
+    // format a double for JSON, which has no NaN
+    private static String json(double value) {
+        if (Double.isNaN(value) || Double.isInfinite(value)) return "null";
+        return String.format(Locale.ROOT, "%.3f", value);
+    }
+
+    /**
+     * runs every workload on every queue and prints the results
+     *
+     * takes an optional command-line argument {@code n}, the number of items in the queue
+     * ( default: 1000000 ), and an optional file name, where the JSON results are written
+     * ( default: standard output only ).
+     *
+     * @param args the command-line arguments
+     */
+    public static void main(String[] args) {
+        int n = args.length > 0 ? Integer.parseInt(args[0]) : 1000000;
+        String[] workloads = { "pushPop", "iterate", "resizeStorm" };
+
+        StringBuilder results = new StringBuilder();
+        StdOut.printf("%-12s %-24s %16s %12s\n", "workload", "queue", "ops/s", "bytes/op");
+        for (String workload : workloads) {
+            for (String name : NAMES) {
+                Workload w;
+                if (workload.equals("pushPop"))      w = QueuesBenchmark::pushPop;
+                else if (workload.equals("iterate")) w = QueuesBenchmark::iterate;
+                else                                 w = QueuesBenchmark::resizeStorm;
+                double[] r = measure(factory(name, n), w, n);
+                StdOut.printf("%-12s %-24s %16.0f %12.2f\n", workload, name, r[0], r[1]);
+                if (results.length() > 0) results.append(",\n");
+                results.append("    { \"workload\": \"").append(workload)
+                       .append("\", \"queue\": \"").append(name)
+                       .append("\", \"n\": ").append(n)
+                       .append(", \"opsPerSecond\": ").append(json(r[0]))
+                       .append(", \"bytesPerOp\": ").append(json(r[1])).append(" }");
+            }
+        }
+
+        // only the randomized queues have a random iterator
+        StringBuilder uniformity = new StringBuilder();
+        StdOut.printf("\nuniformity of the iterator, chi-square with %d degrees of freedom\n", BUCKETS - 1);
+        for (String name : new String[] { "RandomizedQueue", "RandomizedQueue(modulo)",
+                                          "WeightedRandomizedQueue", "BoundedRandomizedQueue" }) {
+            double chiSquare = uniformity(factory(name, BUCKETS));
+            StdOut.printf("%-24s %10.2f\n", name, chiSquare);
+            if (uniformity.length() > 0) uniformity.append(",\n");
+            uniformity.append("    { \"queue\": \"").append(name)
+                      .append("\", \"trials\": ").append(TRIALS)
+                      .append(", \"degreesOfFreedom\": ").append(BUCKETS - 1)
+                      .append(", \"chiSquare\": ").append(json(chiSquare)).append(" }");
+        }
+
+        String report = "{\n"
+                      + "  \"java\": \"" + System.getProperty("java.version") + "\",\n"
+                      + "  \"timestamp\": " + System.currentTimeMillis() + ",\n"
+                      + "  \"results\": [\n" + results + "\n  ],\n"
+                      + "  \"uniformity\": [\n" + uniformity + "\n  ]\n"
+                      + "}";
+        if (args.length > 1) {
+            Out out = new Out(args[1]);
+            out.println(report);
+            out.close();
+        } else {
+            StdOut.println(report);
+        }
+    }
+}
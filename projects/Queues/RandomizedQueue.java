@@ -15,7 +15,10 @@ import java.util.Iterator;
 /**
  * the {@code RandomizedQueue} class represents a randomized queue.
  * 
- * note that the implementation uses a resizing array.
+ * note that the implementation uses a resizing array as a ring buffer.
+ * the capacity is always a power of two ( it starts at 8 and is only ever
+ * doubled or halved ), so indices wrap around with {@code & (queue.length - 1)}
+ * instead of an integer division by {@code queue.length}.
  * note that there will be two warnings when compiling, because
  * generic array creation is not allowed in Java, so
  * there is no way to avoid this warning, just ignore it.
@@ -25,7 +28,7 @@ import java.util.Iterator;
  */
 
 public class RandomizedQueue<Item> implements Iterable<Item> {
-    // initial capacity of underlying resizing array
+    // initial capacity of underlying resizing array, must be a power of two
     private static final int INIT_CAPACITY = 8;
 
     private Item[] queue;   // queue elements
@@ -61,12 +64,13 @@ public class RandomizedQueue<Item> implements Iterable<Item> {
         return size;
     }
 
-    // resize the underlying array
+    // resize the underlying array, capacity must be a power of two
     private void resize(int capacity) {
         Item[] copy = (Item[]) new Object[capacity];
-        for (int i = 0; i < size; i++) {
-            copy[i] = queue[(first + i) % queue.length];
-        }
+        // copy in at most two segments: [first, end of array) and [0, wrap-around part)
+        int head = Math.min(size, queue.length - first);
+        System.arraycopy(queue, first, copy, 0, head);
+        System.arraycopy(queue, 0, copy, head, size - head);
         queue = copy;
         first = 0;
         last  = size;
@@ -81,8 +85,8 @@ public class RandomizedQueue<Item> implements Iterable<Item> {
     public void enqueue(Item item) {
         if (item == null) throw new IllegalArgumentException();
         if (size == queue.length) resize(2*queue.length);
-        queue[last++] = item;
-        if (last == queue.length) last = 0; // wrap-around
+        queue[last] = item;
+        last = (last + 1) & (queue.length - 1);  // wrap-around
         size++;
     }
 
@@ -94,13 +98,12 @@ public class RandomizedQueue<Item> implements Iterable<Item> {
      */
     public Item dequeue() {
         if (isEmpty()) throw new java.util.NoSuchElementException("RandomizedQueue underflow");
-        int index = ( StdRandom.uniformInt(size) + first ) % queue.length;
+        int index = (StdRandom.uniformInt(size) + first) & (queue.length - 1);
         Item item = queue[index];
         queue[index] = queue[first];
         queue[first] = null;    // to avoid loitering
         size--;
-        first++;
-        if (first == queue.length) first = 0; // wrap-around
+        first = (first + 1) & (queue.length - 1);  // wrap-around
         if (size > 0 && size == queue.length/4) resize(queue.length/2);
         return item;
     }
@@ -112,7 +115,7 @@ public class RandomizedQueue<Item> implements Iterable<Item> {
      */
     public Item sample() {
         if (isEmpty()) throw new java.util.NoSuchElementException("RandomizedQueue underflow");
-        int index = ( StdRandom.uniformInt(size) + first ) % queue.length;
+        int index = (StdRandom.uniformInt(size) + first) & (queue.length - 1);
         return queue[index];
     }
 
@@ -131,8 +134,9 @@ public class RandomizedQueue<Item> implements Iterable<Item> {
         public RandomizedQueueIterator() {
             current = 0;
             indices = new int[size];
+            int mask = queue.length - 1;
             for (int i = 0; i < size; i++) {
-                indices[i] = (first + i) % queue.length;
+                indices[i] = (first + i) & mask;
             }
             StdRandom.shuffle(indices); // shuffle the indices
         }
@@ -0,0 +1,259 @@
+/* ***********************************************************************************************************
+ *
+ *  Name:               MinJoker
+ *  Date:               19/10/2026
+ *  Libraries:          algs4.jar
+ *  Project source:     https://coursera.cs.princeton.edu/algs4/assignments/queues/specification.php
+ *
+ ********************************************************************************************************** */
+
+import edu.princeton.cs.algs4.StdOut;
+import edu.princeton.cs.algs4.StdRandom;
+import java.util.Iterator;
+
+/**
+ * the {@code ReservoirSampler} class keeps a uniform random sample of {@code k} items
+ * from a stream of unknown length.
+ *
+ * note that the implementation uses Algorithm L ( Li, 1994 ).
+ * the plain reservoir sampling draws one random number for every item of the stream.
+ * Algorithm L instead draws how many of the upcoming items will be rejected,
+ * which follows a geometric distribution whose parameter {@code w} shrinks
+ * every time an item is accepted.
+ * so only O(k log(n/k)) random numbers are drawn for a stream of n items.
+ *
+ * the caller may use {@code skipLength()} and {@code skip()} to jump over
+ * rejected items without even materializing them, see {@code Permutation}.
+ *
+ * samplers of disjoint streams can be combined with {@code merge()}.
+ * the result is a uniform sample of the concatenated stream, so a large input
+ * can be split into chunks and sampled in parallel.
+ * note that the merge does not recover the state of Algorithm L, so a merged
+ * sampler that has already rejected items falls back to flipping one coin per added item.
+ *
+ * more details can be found in the project source:
+ * https://coursera.cs.princeton.edu/algs4/assignments/queues/specification.php
+ */
+
+public class ReservoirSampler<Item> implements Iterable<Item> {
+    private final int k;        // maximum size of the sample
+    private Item[] reservoir;   // the sample
+    private int filled;         // number of items in reservoir
+    private long count;         // number of items of the stream seen so far
+    private long next;          // index of the next item to be accepted ( 0-indexed )
+    private double w;           // parameter of the geometric skip
+    private boolean merged;     // was some item rejected by a merge?
+
+    /**
+     * construct an empty sampler of at most k items
+     *
+     * @param k the maximum size of the sample
+     * @throws IllegalArgumentException if {@code k < 0}
+     */
+    public ReservoirSampler(int k) {
+        if (k < 0) throw new IllegalArgumentException("k must be non-negative");
+        this.k = k;
+        reservoir = (Item[]) new Object[k];
+        filled = 0;
+        count = 0;
+        next = (k == 0) ? Long.MAX_VALUE : 0;
+        w = 1.0;
+        merged = false;
+    }
+
+    /**
+     * return the number of items in the sample, that is, {@code min(k, count())}
+     *
+     * @return number of items in the sample
+     */
+    public int size() {
+        return filled;
+    }
+
+    /**
+     * return the number of items of the stream seen so far, skipped items included
+     *
+     * @return number of items seen so far
+     */
+    public long count() {
+        return count;
+    }
+
+    /**
+     * offer the next item of the stream
+     *
+     * @param item the next item
+     * @throws IllegalArgumentException if {@code item == null}
+     */
+    public void add(Item item) {
+        if (item == null) throw new IllegalArgumentException();
+        if (filled < k) {
+            // fill the reservoir with the first k items
+            reservoir[filled++] = item;
+            if (filled == k) {
+                w = Math.exp(Math.log(random()) / k);
+                next = count + 1 + geometricSkip();
+            }
+        } else if (merged) {
+            // accept the item with probability k / (count + 1)
+            if (StdRandom.uniformLong(count + 1) < k)
+                reservoir[StdRandom.uniformInt(k)] = item;
+        } else if (count == next) {
+            // accept the item in place of a random one
+            reservoir[StdRandom.uniformInt(k)] = item;
+            w *= Math.exp(Math.log(random()) / k);
+            next = count + 1 + geometricSkip();
+        }
+        count++;
+    }
+
+    /**
+     * return the number of upcoming items that will be rejected
+     *
+     * @return number of upcoming items that can be skipped
+     */
+    public long skipLength() {
+        if (filled < k || merged) return 0;   // still filling the reservoir, or no skip known
+        return next - count;
+    }
+
+    /**
+     * skip the next n items of the stream without offering them
+     *
+     * @param n the number of items to skip
+     * @throws IllegalArgumentException unless {@code 0 <= n <= skipLength()}
+     */
+    public void skip(long n) {
+        if (n < 0 || n > skipLength())
+            throw new IllegalArgumentException("n must be between 0 and " + skipLength());
+        count += n;
+    }
+
+    /**
+     * merge two samplers of disjoint streams into a sampler of their concatenation
+     *
+     * the i-th item of the merged sample comes from {@code a} with probability
+     * proportional to the number of items of {@code a} not picked yet,
+     * and is then drawn uniformly from the remaining items of the reservoir of {@code a},
+     * likewise for {@code b}. so the merged sample is again uniform.
+     * neither argument is modified.
+     *
+     * @param a the sampler of the first stream
+     * @param b the sampler of the second stream
+     * @return a sampler of both streams
+     * @throws IllegalArgumentException if either argument is null,
+     *         or if they do not have the same maximum size
+     */
+    public static <Item> ReservoirSampler<Item> merge(ReservoirSampler<Item> a, ReservoirSampler<Item> b) {
+        if (a == null || b == null) throw new IllegalArgumentException("argument to merge() is null");
+        if (a.k != b.k) throw new IllegalArgumentException("samplers have different sizes");
+        Item[] left = a.reservoir.clone();
+        Item[] right = b.reservoir.clone();
+        int leftSize = a.filled;
+        int rightSize = b.filled;
+        long leftCount = a.count;
+        long rightCount = b.count;
+
+        ReservoirSampler<Item> sampler = new ReservoirSampler<Item>(a.k);
+        sampler.count = a.count + b.count;
+        sampler.filled = (int) Math.min(a.k, sampler.count);
+        for (int i = 0; i < sampler.filled; i++) {
+            int j;
+            if (StdRandom.uniformLong(leftCount + rightCount) < leftCount) {
+                j = StdRandom.uniformInt(leftSize);
+                sampler.reservoir[i] = left[j];
+                left[j] = left[--leftSize];
+                leftCount--;
+            } else {
+                j = StdRandom.uniformInt(rightSize);
+                sampler.reservoir[i] = right[j];
+                right[j] = right[--rightSize];
+                rightCount--;
+            }
+        }
+
+        if (sampler.k == 0) {
+            // nothing will ever be accepted, next is still at infinity
+        } else if (sampler.count > sampler.k) {
+            sampler.merged = true;
+        } else if (sampler.filled == sampler.k) {
+            // exactly k items seen, the state of Algorithm L is the same as after filling
+            sampler.w = Math.exp(Math.log(random()) / sampler.k);
+            sampler.next = sampler.count + sampler.geometricSkip();
+        }
+        return sampler;
+    }
+
+    // number of items rejected before the next accepted one, saturated to avoid overflow
+    private long geometricSkip() {
+        double skip = Math.floor(Math.log(random()) / Math.log1p(-w));
+        long limit = Long.MAX_VALUE - count - 1;
+        if (!(skip < limit)) return limit;   // also handles NaN and infinity
+        return (long) skip;
+    }
+
+    // uniform random number in the open interval (0, 1)
+    private static double random() {
+        double r = StdRandom.uniformDouble();
+        while (r == 0.0) r = StdRandom.uniformDouble();
+        return r;
+    }
+
+    /**
+     * return an iterator over the items in the sample
+     *
+     * note that the order is not random,
+     * use a {@code RandomizedQueue} if a random order is needed.
+     */
+    public Iterator<Item> iterator() {
+        return new ReservoirIterator();
+    }
+
+    // the iterator
+    private class ReservoirIterator implements Iterator<Item> {
+        private int current = 0;
+
+        public boolean hasNext() {
+            return current < filled;
+        }
+
+        public Item next() {
+            if (!hasNext()) throw new java.util.NoSuchElementException();
+            return reservoir[current++];
+        }
+
+        // not supported
+        public void remove() {
+            throw new UnsupportedOperationException();
+        }
+    }
+
+    /**
+     * unit testing
+     *
+     * samples 3 out of "0 1 2 ... 9" many times, using {@code skip()} whenever possible,
+     * and prints how often each item is chosen, which should be about 0.3 for all of them.
+     *
+     * @param args the command-line arguments
+     */
+    public static void main(String[] args) {
+        int n = 10;
+        int k = 3;
+        int trials = 100000;
+        int[] counts = new int[n];
+        for (int t = 0; t < trials; t++) {
+            ReservoirSampler<Integer> sampler = new ReservoirSampler<Integer>(k);
+            int i = 0;
+            while (i < n) {
+                long skip = Math.min(sampler.skipLength(), n - i);
+                sampler.skip(skip);
+                i += skip;
+                if (i < n) sampler.add(i++);
+            }
+            for (int item : sampler) counts[item]++;
+        }
+        for (int i = 0; i < n; i++) {
+            StdOut.printf("%d: %.3f\n", i, (double) counts[i] / trials);
+        }
+    }
+}
@@ -0,0 +1,272 @@
+/* ***********************************************************************************************************
+ *
+ *  Name:               MinJoker
+ *  Date:               19/10/2026
+ *  Libraries:          algs4.jar
+ *  Project source:     https://coursera.cs.princeton.edu/algs4/assignments/queues/specification.php
+ *
+ ********************************************************************************************************** */
+
+import edu.princeton.cs.algs4.StdOut;
+import edu.princeton.cs.algs4.StdRandom;
+import java.util.Iterator;
+
+/**
+ * the {@code WeightedRandomizedQueue} class represents a randomized queue
+ * where each item is sampled with probability proportional to its weight.
+ *
+ * some key points as follows:
+ *
+ * 1. items and weights are kept densely in {@code [0, size)} of two parallel arrays.
+ *    removing an item moves the last item into its slot, so there are no holes.
+ * 2. a Fenwick tree ( binary indexed tree ) over the weights gives prefix sums
+ *    in O(log n). to pick an item, draw {@code r} uniformly in {@code [0, total)}
+ *    and descend the tree to the first index whose prefix sum exceeds {@code r}.
+ *    so both {@code sample()} and {@code dequeue()} take O(log n),
+ *    no matter how skewed the weights are.
+ * 3. the tree is rebuilt in O(n) on every resize, which also clears
+ *    the floating-point error accumulated by the incremental updates.
+ *
+ * more details can be found in the project source:
+ * https://coursera.cs.princeton.edu/algs4/assignments/queues/specification.php
+ */
+
+public class WeightedRandomizedQueue<Item> implements Iterable<Item> {
+    // initial capacity of underlying resizing array, must be a power of two
+    private static final int INIT_CAPACITY = 8;
+
+    private Item[] items;       // queue elements
+    private double[] weights;   // weights[i] is the weight of items[i]
+    private double[] tree;      // Fenwick tree over weights, 1-indexed
+    private int size;           // number of elements on queue
+
+    /**
+     * construct an empty weighted randomized queue
+     */
+    public WeightedRandomizedQueue() {
+        items = (Item[]) new Object[INIT_CAPACITY];
+        weights = new double[INIT_CAPACITY];
+        tree = new double[INIT_CAPACITY + 1];
+        size = 0;
+    }
+
+    /**
+     * is the weighted randomized queue empty?
+     *
+     * @return true if weighted randomized queue is empty, false otherwise
+     */
+    public boolean isEmpty() {
+        return (size == 0);
+    }
+
+    /**
+     * return the number of items on the weighted randomized queue
+     *
+     * @return number of items on weighted randomized queue
+     */
+    public int size() {
+        return size;
+    }
+
+    /**
+     * return the sum of the weights of all items
+     *
+     * @return the total weight
+     */
+    public double totalWeight() {
+        return prefixSum(tree, size);
+    }
+
+    // resize the underlying arrays and rebuild the Fenwick tree
+    private void resize(int capacity) {
+        Item[] itemsCopy = (Item[]) new Object[capacity];
+        double[] weightsCopy = new double[capacity];
+        System.arraycopy(items, 0, itemsCopy, 0, size);
+        System.arraycopy(weights, 0, weightsCopy, 0, size);
+        items = itemsCopy;
+        weights = weightsCopy;
+        tree = build(weights, size, capacity);
+    }
+
+    /**
+     * add the item with the given weight
+     *
+     * @param item the item to add
+     * @param weight the weight of the item
+     * @throws IllegalArgumentException if {@code item == null}
+     * @throws IllegalArgumentException unless {@code weight} is positive and finite
+     */
+    public void enqueue(Item item, double weight) {
+        if (item == null) throw new IllegalArgumentException();
+        if (!(weight > 0) || Double.isInfinite(weight))
+            throw new IllegalArgumentException("weight must be positive and finite");
+        if (size == items.length) resize(2*items.length);
+        items[size] = item;
+        weights[size] = weight;
+        add(tree, size, weight);
+        size++;
+    }
+
+    /**
+     * remove and return a random item, chosen with probability proportional to its weight
+     *
+     * @return a random item
+     * @throws java.util.NoSuchElementException if weighted randomized queue is empty
+     */
+    public Item dequeue() {
+        if (isEmpty()) throw new java.util.NoSuchElementException("WeightedRandomizedQueue underflow");
+        int index = pick(tree, size);
+        Item item = items[index];
+        int last = size - 1;
+        // move the last item into the hole, fixing the prefix sums of both slots
+        add(tree, index, weights[last] - weights[index]);
+        add(tree, last, -weights[last]);
+        items[index] = items[last];
+        weights[index] = weights[last];
+        items[last] = null;     // to avoid loitering
+        weights[last] = 0.0;
+        size--;
+        if (size > 0 && size == items.length/4) resize(items.length/2);
+        return item;
+    }
+
+    /**
+     * return a random item (but do not remove it), chosen with probability proportional to its weight
+     *
+     * @return a random item
+     * @throws java.util.NoSuchElementException if weighted randomized queue is empty
+     */
+    public Item sample() {
+        if (isEmpty()) throw new java.util.NoSuchElementException("WeightedRandomizedQueue underflow");
+        return items[pick(tree, size)];
+    }
+
+    // build a Fenwick tree over the first n weights in O(n)
+    private static double[] build(double[] weights, int n, int capacity) {
+        double[] tree = new double[capacity + 1];
+        for (int i = 1; i <= n; i++) {
+            tree[i] += weights[i - 1];
+            int parent = i + (i & -i);
+            if (parent <= capacity) tree[parent] += tree[i];
+        }
+        return tree;
+    }
+
+    // add delta to the weight at index i ( 0-indexed )
+    private static void add(double[] tree, int i, double delta) {
+        for (int j = i + 1; j < tree.length; j += j & -j)
+            tree[j] += delta;
+    }
+
+    // sum of the weights at indices [0, n)
+    private static double prefixSum(double[] tree, int n) {
+        double sum = 0.0;
+        for (int j = n; j > 0; j -= j & -j)
+            sum += tree[j];
+        return sum;
+    }
+
+    // pick a random index in [0, n) with probability proportional to its weight
+    private static int pick(double[] tree, int n) {
+        double r = StdRandom.uniformDouble() * prefixSum(tree, n);
+        int index = 0;
+        // tree.length - 1 is the capacity, which is a power of two
+        for (int step = tree.length - 1; step > 0; step >>= 1) {
+            int next = index + step;
+            if (next <= n && tree[next] <= r) {
+                index = next;
+                r -= tree[next];
+            }
+        }
+        // guard against floating-point rounding past the last item
+        return Math.min(index, n - 1);
+    }
+
+    /**
+     * return an independent iterator over items in weighted random order,
+     * that is, the order in which repeated calls to {@code dequeue()} could return them
+     */
+    public Iterator<Item> iterator() {
+        return new WeightedRandomizedQueueIterator();
+    }
+
+    // the iterator
+    private class WeightedRandomizedQueueIterator implements Iterator<Item> {
+        private int remaining;
+        private int[] indices;
+        private double[] weightsLeft;
+        private double[] treeLeft;
+
+        public WeightedRandomizedQueueIterator() {
+            remaining = size;
+            indices = new int[size];
+            weightsLeft = new double[size];
+            for (int i = 0; i < size; i++) {
+                indices[i] = i;
+                weightsLeft[i] = weights[i];
+            }
+            treeLeft = build(weightsLeft, size, tree.length - 1);
+        }
+
+        public boolean hasNext() {
+            return remaining > 0;
+        }
+
+        public Item next() {
+            if (!hasNext()) throw new java.util.NoSuchElementException();
+            int index = pick(treeLeft, remaining);
+            Item item = items[indices[index]];
+            int last = remaining - 1;
+            add(treeLeft, index, weightsLeft[last] - weightsLeft[index]);
+            add(treeLeft, last, -weightsLeft[last]);
+            indices[index] = indices[last];
+            weightsLeft[index] = weightsLeft[last];
+            weightsLeft[last] = 0.0;
+            remaining--;
+            return item;
+        }
+
+        // not supported
+        public void remove() {
+            throw new UnsupportedOperationException();
+        }
+    }
+
+    /**
+     * unit testing
+     *
+     * creates a weighted randomized queue of "0 1 2 3", where item i has weight i + 1,
+     * then samples it many times and prints the observed frequencies next to the expected ones.
+     * tests {@code iterator()}, {@code dequeue()}, {@code size()} and {@code isEmpty()} as well.
+     *
+     * @param args the command-line arguments
+     */
+    public static void main(String[] args) {
+        WeightedRandomizedQueue<Integer> wrq = new WeightedRandomizedQueue<Integer>();
+
+        for (int i = 0; i < 4; i++) {
+            wrq.enqueue(i, i + 1);
+        }
+
+        int trials = 100000;
+        int[] counts = new int[4];
+        for (int t = 0; t < trials; t++) {
+            counts[wrq.sample()]++;
+        }
+        for (int i = 0; i < 4; i++) {
+            StdOut.printf("%d: observed %.3f, expected %.3f\n",
+                          i, (double) counts[i] / trials, (i + 1) / wrq.totalWeight());
+        }
+
+        for (int i : wrq) {
+            StdOut.println(i);
+        }
+
+        StdOut.println("Size: " + wrq.size());
+        while (!wrq.isEmpty()) {
+            StdOut.println(wrq.dequeue());
+        }
+        StdOut.println("Size: " + wrq.size());
+        StdOut.println("Is empty: " + wrq.isEmpty());
+    }
+}